@@ -0,0 +1,47 @@
+package org.acl.database.cache;
+
+import java.io.Serializable;
+
+/**
+ * Published on Redis when an entry (or a whole cache) is evicted, so every other node drops it from its L1.
+ *
+ * @author Josh Harkema
+ */
+public class CacheEvictMessage implements Serializable {
+    private static final long serialVersionUID = 6120931187427452081L;
+    private final String origin;
+    private final String cacheName;
+    private final Object key;
+
+    /**
+     * @param origin    the id of the node that evicted.
+     * @param cacheName the cache evicted from.
+     * @param key       the evicted key, or null if the whole cache was cleared.
+     */
+    public CacheEvictMessage(final String origin, final String cacheName, final Object key) {
+        this.origin = origin;
+        this.cacheName = cacheName;
+        this.key = key;
+    }
+
+    public String getOrigin() {
+        return origin;
+    }
+
+    public String getCacheName() {
+        return cacheName;
+    }
+
+    public Object getKey() {
+        return key;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheEvictMessage{" +
+                "origin='" + origin + '\'' +
+                ", cacheName='" + cacheName + '\'' +
+                ", key=" + key +
+                '}';
+    }
+}
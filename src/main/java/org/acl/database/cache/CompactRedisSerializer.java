@@ -0,0 +1,175 @@
+package org.acl.database.cache;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.cfg.MapperConfig;
+import com.fasterxml.jackson.databind.jsontype.NamedType;
+import com.fasterxml.jackson.databind.jsontype.TypeIdResolver;
+import com.fasterxml.jackson.databind.jsontype.impl.ClassNameIdResolver;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.apache.log4j.Logger;
+import org.hibernate.collection.spi.PersistentCollection;
+import org.hibernate.proxy.HibernateProxy;
+import org.springframework.cache.support.NullValue;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.*;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Serializes cache values as Smile (binary JSON) with class names for polymorphic values, deflating payloads of at
+ * least compressThreshold bytes. The first byte of every payload says how it was written, so entries written with
+ * JDK serialization (before this serializer, or for values Jackson cannot write) are still read.
+ * <p>
+ * Values are written as their JSON views: @JsonIgnore'd fields are not cached, which is fine since cached values are
+ * only ever returned as JSON. Hibernate proxies and collections are written as the entity or plain collection they
+ * stand for. A payload that cannot be read is logged and treated as a miss, so the entry is simply recomputed.
+ *
+ * @author Josh Harkema
+ */
+public class CompactRedisSerializer implements RedisSerializer<Object> {
+    private static final Logger LOGGER = Logger.getLogger(CompactRedisSerializer.class);
+    private static final byte SMILE = 1;
+    private static final byte SMILE_DEFLATED = 2;
+    private static final byte JDK_STREAM_MAGIC = (byte) 0xAC; // First byte of every java.io serialization stream.
+    private final ObjectMapper mapper;
+    private final JdkSerializationRedisSerializer jdk;
+    private final int compressThreshold;
+
+    /**
+     * @param classLoader       loads the classes named in payloads.
+     * @param compressThreshold payloads of at least this many bytes are deflated; -1 never deflates.
+     */
+    public CompactRedisSerializer(final ClassLoader classLoader, final int compressThreshold) {
+        this.jdk = new JdkSerializationRedisSerializer(classLoader);
+        this.compressThreshold = compressThreshold;
+        this.mapper = new ObjectMapper(new SmileFactory());
+        mapper.setTypeFactory(TypeFactory.defaultInstance().withClassLoader(classLoader));
+        mapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        mapper.disable(SerializationFeature.FAIL_ON_EMPTY_BEANS);
+        mapper.addMixIn(Object.class, HibernateProxyMixIn.class);
+        mapper.setDefaultTyping(new ObjectMapper.DefaultTypeResolverBuilder(ObjectMapper.DefaultTyping.NON_FINAL) {
+            @Override
+            protected TypeIdResolver idResolver(MapperConfig<?> config, JavaType baseType,
+                                                Collection<NamedType> subtypes, boolean forSer, boolean forDeser) {
+                return new PlainClassIdResolver(baseType, config.getTypeFactory());
+            }
+        }.init(JsonTypeInfo.Id.CLASS, null).inclusion(JsonTypeInfo.As.PROPERTY));
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return new byte[0];
+        }
+        if (value instanceof NullValue) {
+            return jdk.serialize(value); // Must deserialize to NullValue.INSTANCE.
+        }
+
+        byte[] smile;
+        try {
+            smile = mapper.writeValueAsBytes(value);
+        } catch (IOException e) {
+            LOGGER.debug("Falling back to JDK serialization for " + value.getClass().getName() + ": " +
+                    e.getMessage());
+            return jdk.serialize(value);
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(smile.length + 1);
+        if (compressThreshold >= 0 && smile.length >= compressThreshold) {
+            out.write(SMILE_DEFLATED);
+            Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+            try (OutputStream deflating = new DeflaterOutputStream(out, deflater)) {
+                deflating.write(smile);
+            } catch (IOException e) {
+                throw new SerializationException("Could not deflate cache value", e);
+            } finally {
+                deflater.end();
+            }
+        } else {
+            out.write(SMILE);
+            out.write(smile, 0, smile.length);
+        }
+        return out.toByteArray();
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] == JDK_STREAM_MAGIC) {
+            return jdk.deserialize(bytes);
+        }
+
+        try (InputStream in = bytes[0] == SMILE_DEFLATED ?
+                new InflaterInputStream(new ByteArrayInputStream(bytes, 1, bytes.length - 1)) :
+                new ByteArrayInputStream(bytes, 1, bytes.length - 1)) {
+            return mapper.readValue(in, Object.class);
+        } catch (IOException e) {
+            LOGGER.warn("Unreadable cache value, treating it as a miss: " + e.getMessage());
+            return null;
+        }
+    }
+
+    @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+    private abstract static class HibernateProxyMixIn {
+    }
+
+    /**
+     * Names the class a value should be read back as: the entity behind a Hibernate proxy, and a plain JDK
+     * collection for Hibernate's (which cannot be used without a session) and the JDK's private ones.
+     */
+    private static final class PlainClassIdResolver extends ClassNameIdResolver {
+        private PlainClassIdResolver(final JavaType baseType, final TypeFactory typeFactory) {
+            super(baseType, typeFactory);
+        }
+
+        @Override
+        public String idFromValue(Object value) {
+            return _idFrom(value, plainClass(value, value.getClass()), _typeFactory);
+        }
+
+        @Override
+        public String idFromValueAndType(Object value, Class<?> type) {
+            return _idFrom(value, plainClass(value, type), _typeFactory);
+        }
+
+        private static Class<?> plainClass(final Object value, final Class<?> type) {
+            if (value instanceof HibernateProxy) {
+                return ((HibernateProxy) value).getHibernateLazyInitializer().getPersistentClass();
+            }
+            boolean hidden = value instanceof PersistentCollection ||
+                    (type.getName().startsWith("java.util.") && type.getName().indexOf('$') >= 0);
+            if (!hidden) {
+                return type;
+            }
+            if (value instanceof SortedSet) {
+                return TreeSet.class;
+            } else if (value instanceof Set) {
+                return LinkedHashSet.class;
+            } else if (value instanceof SortedMap) {
+                return TreeMap.class;
+            } else if (value instanceof Map) {
+                return LinkedHashMap.class;
+            } else if (value instanceof Collection) {
+                return ArrayList.class;
+            }
+            return type;
+        }
+    }
+}
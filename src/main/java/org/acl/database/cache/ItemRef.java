@@ -0,0 +1,100 @@
+package org.acl.database.cache;
+
+import org.acl.database.persistence.dtos.base.BookOutDto;
+import org.acl.database.persistence.dtos.base.PoemOutDto;
+import org.acl.database.persistence.dtos.base.SectionOutDto;
+import org.acl.database.persistence.dtos.base.ShortStoryOutDto;
+import org.acl.database.persistence.models.base.Item;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Used as a @CacheEvict key, evicts every entry of the cache whose value contains the item with this id, instead of
+ * a single key or every entry (i.e. key = ItemRef.ID evicts the lists that include the item #id.) TwoTierCache
+ * records which item ids each cached value contains when it is put.
+ *
+ * @author Josh Harkema
+ */
+public final class ItemRef implements Serializable {
+    public static final String ID = "T(org.acl.database.cache.ItemRef).of(#id)";
+    public static final String DTO_ID = "T(org.acl.database.cache.ItemRef).of(#dto.id)";
+    private static final long serialVersionUID = -3412009431580524706L;
+    private final Long id;
+
+    private ItemRef(final Long id) {
+        this.id = id;
+    }
+
+    /**
+     * @param id the db id of the item.
+     * @return a reference to the entries containing the item.
+     */
+    public static ItemRef of(final Long id) {
+        return new ItemRef(id);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * @param value a cached value.
+     * @return the ids of the items (or item summaries) the value is or contains; empty for anything else.
+     */
+    static Set<Long> idsOf(final Object value) {
+        Long id = idOf(value);
+        if (id != null) {
+            return Collections.singleton(id);
+        }
+        if (!(value instanceof Collection)) {
+            return Collections.emptySet();
+        }
+        Set<Long> ids = new LinkedHashSet<>();
+        for (Object element : (Collection<?>) value) {
+            id = idOf(element);
+            if (id != null) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+
+    private static Long idOf(final Object value) {
+        if (value instanceof Item) {
+            return ((Item) value).getId();
+        } else if (value instanceof PoemOutDto) {
+            return ((PoemOutDto) value).getId();
+        } else if (value instanceof SectionOutDto) {
+            return ((SectionOutDto) value).getId();
+        } else if (value instanceof ShortStoryOutDto) {
+            return ((ShortStoryOutDto) value).getId();
+        } else if (value instanceof BookOutDto) {
+            return ((BookOutDto) value).getId();
+        }
+        return null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return Objects.equals(id, ((ItemRef) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+
+    @Override
+    public String toString() {
+        return "ItemRef{" +
+                "id=" + id +
+                '}';
+    }
+}
@@ -0,0 +1,337 @@
+package org.acl.database.cache;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.apache.log4j.Logger;
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A cache with an in-heap Caffeine L1 in front of a Redis L2. Reads try L1, then L2 (copying L2 hits into L1). Writes
+ * go to both tiers. Evictions go to both tiers and are published to the other nodes, which drop the entry from their
+ * L1 (see TwoTierCacheManager.) Puts are not published: @Cacheable only puts after a miss, and every write path
+ * evicts, so no other node can hold a newer value.
+ * <p>
+ * Every put records which item ids the value contains, so evicting an ItemRef evicts exactly the entries that contain
+ * that item. Caches of whole tables (i.e. POEM_ALL) are not tracked: their few entries each list most items, so
+ * recording every id on every put costs more than it saves, and evicting an ItemRef from them clears the cache.
+ * <p>
+ * Loads (@Cacheable(sync = true)) are coalesced per key: on a miss only one caller on this node runs the loader, the
+ * others wait for its value (or its failure.)
+ * <p>
+ * An L1 hit on an entry older than the refresh age is served as is, and the entry is re-read from L2 in the
+ * background, so hot entries are renewed before they expire from L1 instead of making a request read them from L2.
+ * This only renews the L1 copy: the L2 entry still expires after its TTL (cache.ttl-ms), and the L1 copy expires
+ * after it, so the entry is then loaded again by the next request (or CacheWarmer.)
+ * <p>
+ * L1 never hands out a shared instance: it holds each value serialized (with the L2 codec, see CacheConfig) and every
+ * hit deserializes its own copy, as an L2 hit does. Callers may change what they get (sort a list, or modify an
+ * entity that is then merged) without changing the cached value or what other requests see. An L1 hit costs a
+ * deserialization but no round trip to Redis.
+ *
+ * @author Josh Harkema
+ */
+public class TwoTierCache implements Cache {
+    private static final Logger LOGGER = Logger.getLogger(TwoTierCache.class);
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<Object, ValueWrapper> local;
+    private final Cache remote;
+    private final RedisSerializer<Object> serializer;
+    private final TwoTierCacheManager manager;
+    private final boolean tracked;
+    private final LongAdder remoteHits = new LongAdder();
+    private final LongAdder remoteMisses = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+    private final ConcurrentMap<Object, CompletableFuture<ValueWrapper>> inFlight = new ConcurrentHashMap<>();
+    private final Set<Object> refreshing = ConcurrentHashMap.newKeySet();
+
+    TwoTierCache(final String name, final com.github.benmanes.caffeine.cache.Cache<Object, ValueWrapper> local,
+                 final Cache remote, final RedisSerializer<Object> serializer, final TwoTierCacheManager manager,
+                 final boolean tracked) {
+        this.name = name;
+        this.local = local;
+        this.remote = remote;
+        this.serializer = serializer;
+        this.manager = manager;
+        this.tracked = tracked;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return remote.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        Object localKey = localKey(key);
+        ValueWrapper wrapper = local.getIfPresent(localKey);
+        if (wrapper != null) {
+            if (isDueForRefresh(localKey)) {
+                refreshLocal(key, localKey, wrapper);
+            }
+            return wrapper;
+        }
+        wrapper = remote.get(key);
+        if (wrapper == null) {
+            remoteMisses.increment();
+            return null;
+        }
+        remoteHits.increment();
+        local.put(localKey, new SerializedValue(serializer, wrapper.get()));
+        return wrapper;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper == null ? null : wrapper.get();
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " +
+                    value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper wrapper = get(key);
+        if (wrapper != null) {
+            return (T) wrapper.get();
+        }
+        Object localKey = localKey(key);
+        CompletableFuture<ValueWrapper> mine = new CompletableFuture<>();
+        CompletableFuture<ValueWrapper> running = inFlight.putIfAbsent(localKey, mine);
+        if (running != null) {
+            coalesced.increment();
+            try {
+                return (T) running.join().get(); // A copy of the loaded value, like an L1 hit.
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+            }
+        }
+        try {
+            // Put by a load that finished between the first get and putIfAbsent.
+            wrapper = local.getIfPresent(localKey);
+            if (wrapper != null) {
+                mine.complete(wrapper);
+                return (T) wrapper.get();
+            }
+            return load(key, valueLoader, mine);
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(localKey, mine);
+        }
+    }
+
+    /**
+     * The loaded value itself goes to the caller that loaded it; callers waiting on the load get copies.
+     */
+    private <T> T load(final Object key, final Callable<T> valueLoader, final CompletableFuture<ValueWrapper> done) {
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        done.complete(store(key, value));
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        store(key, value);
+    }
+
+    private ValueWrapper store(final Object key, final Object value) {
+        remote.put(key, value);
+        ValueWrapper wrapper = new SerializedValue(serializer, value);
+        local.put(localKey(key), wrapper);
+        track(key, value);
+        return wrapper;
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = remote.putIfAbsent(key, value);
+        local.put(localKey(key), new SerializedValue(serializer, existing == null ? value : existing.get()));
+        if (existing == null) {
+            track(key, value);
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        if (key instanceof ItemRef && !tracked) {
+            clear();
+            return;
+        }
+        if (key instanceof ItemRef) {
+            for (Object dependent : manager.untrack(name, ((ItemRef) key).getId())) {
+                evict(dependent);
+            }
+            return;
+        }
+        remote.evict(key);
+        local.invalidate(localKey(key));
+        manager.publish(name, key);
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        local.invalidateAll();
+        manager.untrackAll(name);
+        manager.publish(name, null);
+    }
+
+    private boolean isDueForRefresh(final Object localKey) {
+        long refreshAfter = manager.getLocalRefreshMs();
+        if (refreshAfter <= 0) {
+            return false;
+        }
+        OptionalLong age = local.policy().expireAfterWrite()
+                .map(expiration -> expiration.ageOf(localKey, TimeUnit.MILLISECONDS))
+                .orElse(OptionalLong.empty());
+        return age.isPresent() && age.getAsLong() >= refreshAfter;
+    }
+
+    /**
+     * Re-reads an entry from L2 on the manager's refresh executor, at most once at a time per key. The L1 entry is
+     * only replaced if it is still the one that was hit, so an eviction that lands during the refresh is not undone.
+     * If L2 no longer has the entry (i.e. it was evicted on another node) the L1 entry is left to expire.
+     */
+    private void refreshLocal(final Object key, final Object localKey, final ValueWrapper current) {
+        if (!refreshing.add(localKey)) {
+            return;
+        }
+        try {
+            manager.getRefreshExecutor().execute(() -> {
+                try {
+                    ValueWrapper fresh = remote.get(key);
+                    if (fresh != null && local.asMap().replace(localKey, current,
+                            new SerializedValue(serializer, fresh.get()))) {
+                        refreshes.increment();
+                    }
+                } catch (RuntimeException e) {
+                    LOGGER.error("Could not refresh " + name + " entry " + key + ": " + e.getMessage());
+                } finally {
+                    refreshing.remove(localKey);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(localKey);
+        }
+    }
+
+    /**
+     * If the ids cannot be recorded the entry is evicted again, as it could not be invalidated by item.
+     */
+    private void track(final Object key, final Object value) {
+        if (!tracked) {
+            return;
+        }
+        Set<Long> ids = ItemRef.idsOf(value);
+        if (!ids.isEmpty() && !manager.track(name, key, ids)) {
+            remote.evict(key);
+            local.invalidate(localKey(key));
+        }
+    }
+
+    /**
+     * @param key a cache key.
+     * @return true if L1 holds an unexpired entry for the key; neither deserializes it nor counts as a hit.
+     */
+    public boolean isCachedLocally(final Object key) {
+        return local.asMap().containsKey(localKey(key));
+    }
+
+    /**
+     * Drops an entry (or every entry, if key is null) from L1 only, after another node evicted it.
+     */
+    void evictLocal(final Object key) {
+        if (key == null) {
+            local.invalidateAll();
+        } else {
+            local.invalidate(localKey(key));
+        }
+    }
+
+    /**
+     * @return the hit counts and ratios of both tiers, how many loads waited for another caller's load, and how many
+     * L1 entries were refreshed ahead of expiry. L2 is only consulted on an L1 miss.
+     */
+    Map<String, Object> stats() {
+        CacheStats localStats = local.stats();
+        long hits = remoteHits.sum();
+        long misses = remoteMisses.sum();
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("l1Size", local.estimatedSize());
+        out.put("l1Hits", localStats.hitCount());
+        out.put("l1Misses", localStats.missCount());
+        out.put("l1HitRatio", localStats.hitRate());
+        out.put("l1Evictions", localStats.evictionCount());
+        out.put("l2Hits", hits);
+        out.put("l2Misses", misses);
+        out.put("l2HitRatio", hits + misses == 0 ? 1.0 : (double) hits / (hits + misses));
+        out.put("coalescedLoads", coalesced.sum());
+        out.put("l1Refreshes", refreshes.sum());
+        return out;
+    }
+
+    /**
+     * An L1 entry. ValueWrappers are compared by identity, which refreshLocal relies on.
+     */
+    private static final class SerializedValue implements ValueWrapper {
+        private final RedisSerializer<Object> serializer;
+        private final byte[] bytes;
+
+        SerializedValue(final RedisSerializer<Object> serializer, final Object value) {
+            this.serializer = serializer;
+            this.bytes = value == null ? null : serializer.serialize(value);
+        }
+
+        /**
+         * @return a new copy of the value on every call.
+         */
+        @Override
+        public Object get() {
+            return bytes == null ? null : serializer.deserialize(bytes);
+        }
+    }
+
+    /**
+     * Redis keys are strings converted from the key, but L1 keys are the objects themselves, so arrays (i.e. the
+     * Long[] of the by_ids endpoints) are compared by their contents rather than their identity.
+     */
+    private static Object localKey(final Object key) {
+        if (key instanceof Object[]) {
+            return Collections.unmodifiableList(Arrays.asList(((Object[]) key).clone()));
+        }
+        return key;
+    }
+}
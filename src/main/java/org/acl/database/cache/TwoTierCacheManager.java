@@ -0,0 +1,224 @@
+package org.acl.database.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.apache.log4j.Logger;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wraps every cache of the Redis cache manager in a TwoTierCache with its own size and time bounded Caffeine L1.
+ * Evictions are published on EVICT_CHANNEL and, as a MessageListener subscribed to that channel, evictions from other
+ * nodes are applied to the local L1s. The L1 time bound caps how long a node can serve a stale entry if a message is
+ * lost. Entries hit after the refresh age are re-read from L2 ahead of that bound, on a small shared executor. L1s
+ * hold values serialized, so they never share an instance between callers (see TwoTierCache.)
+ * <p>
+ * The item ids each cached value contains (see ItemRef) are recorded in Redis, next to the L2 entries, as one set of
+ * keys per cache and item id ("cache-deps:CACHE:ID") plus a set of the tracked ids per cache ("cache-deps:CACHE").
+ * Keys of entries evicted by key, or expired, are not removed from these sets, so every put renews the sets it adds
+ * to for the L2 entry TTL: a set then outlives every entry it lists and expires once none are left. Caches that are
+ * evicted wholesale (the untracked caches) record nothing.
+ *
+ * @author Josh Harkema
+ */
+public class TwoTierCacheManager implements CacheManager, MessageListener {
+    public static final String EVICT_CHANNEL = "cache:evict";
+    private static final String DEPENDENCY_PREFIX = "cache-deps:";
+    private static final int POP_COUNT = 100;
+    private static final int REFRESH_THREADS = 2;
+    private static final int REFRESH_QUEUE_CAPACITY = 100;
+    private static final Logger LOGGER = Logger.getLogger(TwoTierCacheManager.class);
+    private final String nodeId = UUID.randomUUID().toString();
+    private final ConcurrentMap<String, TwoTierCache> caches = new ConcurrentHashMap<>();
+    private final CacheManager remote;
+    private final RedisTemplate<Object, Object> redisTemplate;
+    private final RedisSerializer<Object> localSerializer;
+    private final long localMaxSize;
+    private final Duration localTtl;
+    private final long localRefreshMs;
+    private final Duration dependencyTtl;
+    private final Set<String> untrackedCaches;
+    private final Executor refreshExecutor;
+
+    /**
+     * @param remote        the Redis (L2) cache manager.
+     * @param redisTemplate   publishes evictions; its value serializer also reads them.
+     * @param localSerializer serializes the values held in L1.
+     * @param localMaxSize    the maximum number of entries in each L1 cache.
+     * @param localTtl        how long an entry stays in L1 after it is written.
+     * @param localRefresh    the age after which a hit refreshes an L1 entry in the background; zero disables it.
+     * @param dependencyTtl   the L2 entry TTL, for which the item ids of each put are kept; zero keeps them.
+     * @param untrackedCaches the caches whose item ids are not recorded; evicting an item from them clears them.
+     */
+    public TwoTierCacheManager(final CacheManager remote, final RedisTemplate<Object, Object> redisTemplate,
+                               final RedisSerializer<Object> localSerializer, final long localMaxSize,
+                               final Duration localTtl, final Duration localRefresh, final Duration dependencyTtl,
+                               final Set<String> untrackedCaches) {
+        this.remote = remote;
+        this.redisTemplate = redisTemplate;
+        this.localSerializer = localSerializer;
+        this.localMaxSize = localMaxSize;
+        this.localTtl = localTtl;
+        this.localRefreshMs = localRefresh.toMillis();
+        this.dependencyTtl = dependencyTtl;
+        this.untrackedCaches = untrackedCaches;
+        // Refreshes are optional: when the queue is full they are dropped (see TwoTierCache) rather than queued.
+        this.refreshExecutor = new ThreadPoolExecutor(REFRESH_THREADS, REFRESH_THREADS, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(REFRESH_QUEUE_CAPACITY), r -> {
+            Thread thread = new Thread(r, "cache_refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, n -> {
+            Cache cache = remote.getCache(n);
+            return cache == null ? null : new TwoTierCache(n, Caffeine.newBuilder()
+                    .maximumSize(localMaxSize)
+                    .expireAfterWrite(localTtl)
+                    .recordStats()
+                    .build(), cache, localSerializer, this, !untrackedCaches.contains(n));
+        });
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return Collections.unmodifiableSet(caches.keySet());
+    }
+
+    /**
+     * @return the hit counts and ratios of both tiers of every cache used so far, keyed by cache name.
+     */
+    public Map<String, Map<String, Object>> snapshot() {
+        Map<String, Map<String, Object>> out = new TreeMap<>();
+        caches.forEach((name, cache) -> out.put(name, cache.stats()));
+        return out;
+    }
+
+    long getLocalRefreshMs() {
+        return localRefreshMs;
+    }
+
+    Executor getRefreshExecutor() {
+        return refreshExecutor;
+    }
+
+    /**
+     * Tells the other nodes to drop an entry (or a whole cache, if key is null) from their L1. A failure is logged
+     * rather than thrown, the other nodes' L1 entries still expire.
+     */
+    void publish(final String cacheName, final Object key) {
+        try {
+            redisTemplate.convertAndSend(EVICT_CHANNEL, new CacheEvictMessage(nodeId, cacheName, key));
+        } catch (RuntimeException e) {
+            LOGGER.error("Could not publish cache eviction for " + cacheName + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Records that the entry for key contains the items with the given ids.
+     *
+     * @return false if the ids could not be recorded.
+     */
+    boolean track(final String cacheName, final Object key, final Set<Long> ids) {
+        try {
+            redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) {
+                    RedisOperations<Object, Object> redis = (RedisOperations<Object, Object>) operations;
+                    SetOperations<Object, Object> sets = redis.opsForSet();
+                    for (Long id : ids) {
+                        sets.add(dependencyKey(cacheName, id), key);
+                        expire(redis, dependencyKey(cacheName, id));
+                    }
+                    sets.add(DEPENDENCY_PREFIX + cacheName, ids.toArray());
+                    expire(redis, DEPENDENCY_PREFIX + cacheName);
+                    return null;
+                }
+            });
+            return true;
+        } catch (RuntimeException e) {
+            LOGGER.error("Could not track the items cached in " + cacheName + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    private void expire(final RedisOperations<Object, Object> redis, final String dependencyKey) {
+        if (!dependencyTtl.isZero()) {
+            redis.expire(dependencyKey, dependencyTtl.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Forgets (atomically, so a concurrent put is either returned or kept) the entries that contain an item.
+     *
+     * @return the keys of the entries of the cache that contain the item.
+     */
+    List<Object> untrack(final String cacheName, final Long id) {
+        String dependencyKey = dependencyKey(cacheName, id);
+        SetOperations<Object, Object> sets = redisTemplate.opsForSet();
+        List<Object> keys = new ArrayList<>();
+        List<Object> popped;
+        do {
+            popped = sets.pop(dependencyKey, POP_COUNT);
+            if (popped != null) {
+                keys.addAll(popped);
+            }
+        } while (popped != null && popped.size() == POP_COUNT);
+        sets.remove(DEPENDENCY_PREFIX + cacheName, id);
+        return keys;
+    }
+
+    /**
+     * Forgets every entry of a cache, after it is cleared (i.e. by @CacheEvict(allEntries = true).)
+     */
+    void untrackAll(final String cacheName) {
+        Set<Object> ids = redisTemplate.opsForSet().members(DEPENDENCY_PREFIX + cacheName);
+        List<Object> keys = new ArrayList<>();
+        keys.add(DEPENDENCY_PREFIX + cacheName);
+        if (ids != null) {
+            ids.forEach(id -> keys.add(dependencyKey(cacheName, (Long) id)));
+        }
+        redisTemplate.delete(keys);
+    }
+
+    private static String dependencyKey(final String cacheName, final Long id) {
+        return DEPENDENCY_PREFIX + cacheName + ":" + id;
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        RedisSerializer<?> serializer = redisTemplate.getValueSerializer();
+        Object body = serializer.deserialize(message.getBody());
+        if (!(body instanceof CacheEvictMessage)) {
+            return;
+        }
+        CacheEvictMessage evict = (CacheEvictMessage) body;
+        if (nodeId.equals(evict.getOrigin())) {
+            return;
+        }
+        LOGGER.debug("Evicting from L1: " + evict);
+        TwoTierCache cache = caches.get(evict.getCacheName());
+        if (cache != null) {
+            cache.evictLocal(evict.getKey());
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package org.acl.database.config;
+
+import org.acl.database.cache.CompactRedisSerializer;
+import org.acl.database.cache.TwoTierCacheManager;
+import org.springframework.beans.factory.BeanClassLoaderAware;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Configures caching: an in-heap Caffeine L1 in front of the Redis L2 for every cache (see TwoTierCacheManager.)
+ *
+ * @author Josh Harkema
+ */
+@Configuration
+public class CacheConfig implements BeanClassLoaderAware {
+    private static final String UNTRACKED_CACHES = "POEM_ALL,POEM_ALL_SECURE,SECTION_ALL,SECTION_ALL_SECURE," +
+            "BOOK_ALL,SHORT_STORY_ALL,SHORT_STORY_ALL_SECURE";
+    private ClassLoader classLoader;
+
+    @Override
+    public void setBeanClassLoader(ClassLoader classLoader) {
+        this.classLoader = classLoader;
+    }
+
+    /**
+     * @param serializer        "compact" or "jdk".
+     * @param compressThreshold the size from which compact values are compressed; -1 never compresses.
+     * @return the "compact" serializer (see CompactRedisSerializer) or, with "jdk", the one Spring Boot would use.
+     */
+    private RedisSerializer<Object> valueSerializer(final String serializer, final int compressThreshold) {
+        return "jdk".equalsIgnoreCase(serializer) ?
+                new JdkSerializationRedisSerializer(classLoader) :
+                new CompactRedisSerializer(classLoader, compressThreshold);
+    }
+
+    /**
+     * The L2. Entries expire after cache.ttl-ms (zero never expires them), as do the sets recording which items
+     * they contain (see TwoTierCacheManager.)
+     */
+    @Bean
+    public RedisCacheManager redisCacheManager(RedisConnectionFactory connectionFactory,
+                                               @Value("${cache.serializer:compact}") String serializer,
+                                               @Value("${cache.compress-threshold:1024}") int compressThreshold,
+                                               @Value("${cache.ttl-ms:86400000}") long ttlMs) {
+        RedisSerializer<Object> values = valueSerializer(serializer, compressThreshold);
+        return RedisCacheManager.builder(connectionFactory)
+                .cacheDefaults(RedisCacheConfiguration.defaultCacheConfig()
+                        .entryTtl(Duration.ofMillis(ttlMs))
+                        .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(values)))
+                .build();
+    }
+
+    /**
+     * L1 values are serialized with the same codec as L2, but never compressed: L1 trades memory for fast hits. The
+     * whole table caches are evicted wholesale whenever an item is added, so the items they contain are not tracked.
+     */
+    @Bean
+    @Primary
+    public TwoTierCacheManager cacheManager(RedisCacheManager redisCacheManager,
+                                            RedisTemplate<Object, Object> redisTemplate,
+                                            @Value("${cache.serializer:compact}") String serializer,
+                                            @Value("${cache.local.max-size:1000}") long localMaxSize,
+                                            @Value("${cache.local.ttl-ms:60000}") long localTtlMs,
+                                            @Value("${cache.local.refresh-ms:45000}") long localRefreshMs,
+                                            @Value("${cache.ttl-ms:86400000}") long ttlMs,
+                                            @Value("${cache.untracked:" + UNTRACKED_CACHES + "}")
+                                                    Set<String> untrackedCaches) {
+        return new TwoTierCacheManager(redisCacheManager, redisTemplate,
+                valueSerializer(serializer, -1), localMaxSize, Duration.ofMillis(localTtlMs),
+                Duration.ofMillis(localRefreshMs), Duration.ofMillis(ttlMs), untrackedCaches);
+    }
+
+    @Bean
+    public RedisMessageListenerContainer cacheEvictListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                     TwoTierCacheManager cacheManager) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(cacheManager, new ChannelTopic(TwoTierCacheManager.EVICT_CHANNEL));
+        return container;
+    }
+}
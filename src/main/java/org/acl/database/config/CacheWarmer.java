@@ -0,0 +1,109 @@
+package org.acl.database.config;
+
+import org.acl.database.cache.TwoTierCache;
+import org.acl.database.controllers.base.BookController;
+import org.acl.database.controllers.base.PoemController;
+import org.acl.database.controllers.base.SectionController;
+import org.acl.database.controllers.base.ShortStoryController;
+import org.apache.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Loads the public list caches (poem, section, book and short story /all) so no request pays for a cold list. Each
+ * list is loaded through its controller, so the entry lands in the same cache and under the same key a request
+ * would use; a list that is already in L2 is only copied into L1.
+ * <p>
+ * At startup the lists are loaded in parallel with each other and with the search indexes (see LuceneConfig.init.)
+ * Afterwards, every interval, each list that is no longer in this node's L1 is loaded again. A list is missing from
+ * L1 once a write evicted it, or once its L1 copy expired (which it does after its L2 entry expired, as L1 is only
+ * ever refreshed from L2), so expired lists are reloaded from the database here rather than by a request. Lists that
+ * are still in L1 are not read at all.
+ *
+ * @author Josh Harkema
+ */
+@Configuration
+public class CacheWarmer {
+    private static final Logger LOGGER = Logger.getLogger(CacheWarmer.class);
+    private final Map<String, Supplier<?>> lists = new LinkedHashMap<>();
+    private final Map<String, String> cacheNames = new LinkedHashMap<>();
+    private final CacheManager cacheManager;
+    private final boolean enabled;
+
+    @Autowired
+    public CacheWarmer(PoemController poemController, SectionController sectionController,
+                       BookController bookController, ShortStoryController shortStoryController,
+                       CacheManager cacheManager, @Value("${cache.warm.enabled:true}") boolean enabled) {
+        this.cacheManager = cacheManager;
+        this.enabled = enabled;
+        add("/poem/all", "POEM_ALL", poemController::getAll);
+        add("/section/all", "SECTION_ALL", sectionController::getAll);
+        add("/book/all", "BOOK_ALL", bookController::getAll);
+        add("/short_story/all", "SHORT_STORY_ALL", shortStoryController::getAll);
+    }
+
+    private void add(final String path, final String cacheName, final Supplier<?> list) {
+        lists.put(path, list);
+        cacheNames.put(path, cacheName);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warm() {
+        if (!enabled) {
+            return;
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(lists.size(), r -> {
+            Thread thread = new Thread(r, "cache_warm");
+            thread.setDaemon(true);
+            return thread;
+        });
+        lists.forEach((path, list) -> executor.submit(() -> load(path, list)));
+        executor.shutdown();
+    }
+
+    @Scheduled(initialDelayString = "${cache.warm.interval-ms:30000}",
+            fixedDelayString = "${cache.warm.interval-ms:30000}")
+    public void rewarm() {
+        if (enabled) {
+            lists.forEach((path, list) -> {
+                if (!isCachedLocally(path)) {
+                    load(path, list);
+                }
+            });
+        }
+    }
+
+    /**
+     * The lists take no arguments, so they are cached under SimpleKey.EMPTY.
+     */
+    private boolean isCachedLocally(final String path) {
+        Cache cache = cacheManager.getCache(cacheNames.get(path));
+        return cache instanceof TwoTierCache && ((TwoTierCache) cache).isCachedLocally(SimpleKey.EMPTY);
+    }
+
+    /**
+     * Errors are logged, never thrown; the list is loaded by the next request or interval instead.
+     */
+    private void load(final String path, final Supplier<?> list) {
+        long start = System.currentTimeMillis();
+        try {
+            list.get();
+            LOGGER.debug("Warmed " + path + " in " + (System.currentTimeMillis() - start) + "ms.");
+        } catch (RuntimeException e) {
+            LOGGER.error("Could not warm " + path + ": " + e.getMessage());
+        }
+    }
+}
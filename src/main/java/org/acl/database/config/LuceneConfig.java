@@ -1,19 +1,19 @@
 package org.acl.database.config;
 
+import org.acl.database.persistence.dtos.base.IndexVersionDto;
 import org.acl.database.persistence.models.TypeConstants;
-import org.acl.database.persistence.models.base.Author;
-import org.acl.database.persistence.models.base.Poem;
-import org.acl.database.persistence.models.base.Section;
-import org.acl.database.persistence.models.base.ShortStory;
-import org.acl.database.persistence.models.theater.Play;
 import org.acl.database.persistence.repositories.AuthorRepository;
 import org.acl.database.persistence.repositories.SectionRepositoryBase;
 import org.acl.database.persistence.repositories.ShortStoryRepository;
 import org.acl.database.persistence.repositories.poem.PoemRepository;
 import org.acl.database.persistence.repositories.theater.PlayRepository;
+import org.acl.database.search.IndexProgress;
+import org.acl.database.search.IndexWriterRegistry;
+import org.acl.database.search.PoemDuplicates;
 import org.acl.database.search.SearchRepository;
+import org.acl.database.search.SearcherRegistry;
+import org.acl.database.search.StreamingIndexer;
 import org.acl.database.services.search.SearchConstants;
-import org.acl.database.services.theater.PlayService;
 import org.apache.log4j.Logger;
 import org.apache.lucene.analysis.Analyzer;
 import org.apache.lucene.analysis.custom.CustomAnalyzer;
@@ -22,20 +22,44 @@ import org.apache.lucene.analysis.miscellaneous.PerFieldAnalyzerWrapper;
 import org.apache.lucene.document.*;
 import org.apache.lucene.index.IndexOptions;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
 
+import javax.annotation.PreDestroy;
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
- * This is where the Lucene indexes are built. Runs after db initialization and writes Lucene indexes to
- * INDEX_DIR defined in SearchConstants.
+ * This is where the Lucene indexes are built. Opens the shared writers and searchers, then, once the app is ready,
+ * synchronizes the indexes in DOCS_PATH (defined in SearchConstants) with the database in the background.
  *
  * @author Josh Harkema
  */
 @Configuration
 public class LuceneConfig {
     private static final Logger LOGGER = Logger.getLogger(LuceneConfig.class);
+    private static final String[] INDEX_TYPES = new String[]{
+            TypeConstants.POEM,
+            TypeConstants.SECTION,
+            TypeConstants.SHORT_STORY,
+            TypeConstants.AUTHOR,
+            TypeConstants.PLAY,
+            TypeConstants.DILI
+    };
+    private static final int INDEX_THREADS = 3;
+    private static final long INDEX_SHUTDOWN_SECONDS = 10;
+    private final ExecutorService indexExecutor = Executors.newFixedThreadPool(INDEX_THREADS, r -> {
+        Thread thread = new Thread(r, "lucene_index");
+        thread.setDaemon(true);
+        return thread;
+    });
     private final PoemRepository poemRepository;
     private final SectionRepositoryBase sectionRepositoryBase;
     private final ShortStoryRepository shortStoryRepository;
@@ -45,13 +69,38 @@ public class LuceneConfig {
     @Autowired
     public LuceneConfig(PoemRepository poemRepository, SectionRepositoryBase sectionRepositoryBase,
                         ShortStoryRepository shortStoryRepository, AuthorRepository authorRepository,
-                        PlayRepository playRepository) {
+                        PlayRepository playRepository,
+                        @Value("${lucene.commit.policy:time}") String commitPolicy,
+                        @Value("${lucene.commit.interval-ms:" + SearchConstants.COMMIT_INTERVAL_MS + "}")
+                                long commitIntervalMs,
+                        @Value("${lucene.commit.max-pending:" + SearchConstants.COMMIT_MAX_PENDING + "}")
+                                int commitMaxPending,
+                        @Value("${lucene.searcher.refresh-ms:" + SearchConstants.SEARCHER_REFRESH_MS + "}")
+                                long searcherRefreshMs) {
         this.poemRepository = poemRepository;
         this.sectionRepositoryBase = sectionRepositoryBase;
         this.shortStoryRepository = shortStoryRepository;
         this.authorRepository = authorRepository;
         this.playRepository = playRepository;
-        this.init();
+        IndexWriterRegistry.open(
+                IndexWriterRegistry.commitPolicy(commitPolicy, commitIntervalMs, commitMaxPending), INDEX_TYPES);
+        SearcherRegistry.open(searcherRefreshMs, INDEX_TYPES);
+    }
+
+    /**
+     * Stops any running index synchronization, closes the searchers, then commits and closes the shared index
+     * writers.
+     */
+    @PreDestroy
+    public void close() {
+        indexExecutor.shutdown(); // Interrupting a thread mid-write can close the index's file channels.
+        try {
+            indexExecutor.awaitTermination(INDEX_SHUTDOWN_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        SearcherRegistry.close();
+        IndexWriterRegistry.close();
     }
 
     /**
@@ -91,11 +140,31 @@ public class LuceneConfig {
         }
     }
 
+    /**
+     * The analyzer chain is built once and shared by every writer, query parser and highlighter. Analyzers are thread
+     * safe: each one reuses its token streams per thread (PerFieldAnalyzerWrapper per field and thread) so nothing
+     * is rebuilt per document or per query.
+     *
+     * @return the shared analyzer. Never close it.
+     */
     public static Analyzer getAnalyzer() {
+        return AnalyzerHolder.ANALYZER;
+    }
+
+    /**
+     * Builds a new, unshared analyzer chain. Only needed to compare against the shared one; use getAnalyzer().
+     *
+     * @return a new analyzer.
+     */
+    public static Analyzer createAnalyzer() {
         return new PerFieldAnalyzerWrapper(
                 new EnglishAnalyzer(EnglishAnalyzer.ENGLISH_STOP_WORDS_SET), getAnalyzerMap());
     }
 
+    private static final class AnalyzerHolder {
+        private static final Analyzer ANALYZER = createAnalyzer();
+    }
+
     /**
      * Creates a field that stores TermVectors, Vector positions, and Vector offsets from a string. ONLY WORKS WITH
      * FIELDS NAMED 'TEXT.'
@@ -112,132 +181,138 @@ public class LuceneConfig {
         return new Field(SearchConstants.TEXT, text, textField);
     }
 
-    private void init() {
-        this.indexPoems();
-        this.indexSections();
-        this.indexAuthors();
-        this.indexShortStories();
-        this.indexPlays();
+    /**
+     * Synchronizes every index with the database once the app is up. Each item type is handled on its own thread;
+     * progress is reported through IndexProgress while searches are served from whatever is already indexed.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() {
+        for (String itemType : INDEX_TYPES) {
+            IndexProgress.pending(itemType);
+        }
+        indexExecutor.submit(() -> runIndexer(TypeConstants.POEM, this::indexPoems));
+        indexExecutor.submit(() -> runIndexer(TypeConstants.SECTION, this::indexSections));
+        indexExecutor.submit(() -> runIndexer(TypeConstants.SHORT_STORY, this::indexShortStories));
+        indexExecutor.submit(() -> runIndexer(TypeConstants.AUTHOR, this::indexAuthors));
+        indexExecutor.submit(() -> runIndexer(TypeConstants.PLAY, this::indexPlays));
+    }
+
+    private static void runIndexer(final String itemType, final Runnable indexer) {
+        try {
+            indexer.run();
+        } catch (Exception e) {
+            LOGGER.error(String.format("[SEARCH] :::::: Error synchronizing '%s' index.", itemType));
+            LOGGER.error(e);
+            IndexProgress.fail(itemType, e);
+        }
     }
 
     /**
-     * Writes all non-hidden poems to a com.sonnets.sonnet.search index. Delete any existing indexes first.
+     * Brings an index in line with the database. Only rows that are new or whose lastModifiedDate differs from the
+     * indexed one are rewritten, documents for rows that no longer exist are removed. Indexes written with a
+     * different SearchConstants.INDEX_VERSION are cleared and rebuilt.
+     * <p>
+     * The index is read BEFORE the database: requests are served during the sync, and a row added in between is
+     * then in the database snapshot (and rewritten, which is harmless) rather than only in the index, where it would
+     * look deleted and be removed.
+     *
+     * @param itemType the index to synchronize.
+     * @param versions reads the id and last modified date of every row that belongs in the index.
+     * @param writer   writes (or rewrites) the documents for the stale ids and reports progress.
+     * @param remover  removes the documents for an id that is no longer in the database.
      */
-    private void indexPoems() {
-        LOGGER.debug("[SEARCH] :::::: Starting to write poem index...");
-        List<Poem> poems = poemRepository.findAllByHidden(false).orElse(Collections.emptyList());
-        LOGGER.debug(String.format("[SEARCH] :::::: Poems to index: %s.", poems.size()));
-
-        int counter = 0;
-        ArrayList<Document> documents = new ArrayList<>();
-        for (Poem p : poems) {
-            Document document = SearchRepository.parseCommonFields(new Document(), p);
-            document.add(new TextField(SearchConstants.POEM_FORM, p.getForm(), Field.Store.YES));
-            // :todo: this requires its own custom field.
-            document.add(new TextField(SearchConstants.TOPIC_MODEL, String.valueOf(p.getTopicModel()),
-                    Field.Store.YES));
-            document.add(getTextField(String.join(SearchConstants.LINE_DELIMITER_POEM, p.getText())));
-            documents.add(document);
-            if (counter % 25 == 0) {
-                LOGGER.debug(String.format("[SEARCH] :::::: id: %s | '%s' added to document index.", p.getId(),
-                        p.getTitle()));
+    private static void syncIndex(final String itemType, final Supplier<List<IndexVersionDto>> versions,
+                                  final Consumer<List<Long>> writer, final Consumer<String> remover) {
+        LOGGER.debug(String.format("[SEARCH] :::::: Synchronizing '%s' index...", itemType));
+        Map<String, Long> indexed;
+        if (SearchConstants.INDEX_VERSION.equals(IndexWriterRegistry.getIndexVersion(itemType))) {
+            indexed = SearchRepository.getIndexedVersions(itemType);
+        } else {
+            LOGGER.debug(String.format("[SEARCH] :::::: '%s' index is out of date; rebuilding.", itemType));
+            SearchRepository.clearIndex(itemType);
+            indexed = new HashMap<>();
+        }
+
+        List<Long> stale = new ArrayList<>();
+        for (IndexVersionDto version : versions.get()) {
+            Long modified = indexed.remove(version.getId().toString());
+            if (modified == null || modified != SearchRepository.lastModified(version.getLastModifiedDate())) {
+                stale.add(version.getId());
             }
-            counter++;
         }
-        SearchRepository.addDocuments(documents, TypeConstants.POEM);
-        LOGGER.debug("[SEARCH] :::::: poems indexed successfully!");
+        // Anything left over is no longer in the database.
+        Set<String> removed = indexed.keySet();
+        LOGGER.debug(String.format("[SEARCH] :::::: '%s': %s to index, %s to remove.", itemType, stale.size(),
+                removed.size()));
+
+        IndexProgress.start(itemType, stale.size() + removed.size());
+        writer.accept(stale);
+        removed.forEach(remover);
+        IndexProgress.advance(itemType, removed.size());
+
+        IndexWriterRegistry.setIndexVersion(itemType, SearchConstants.INDEX_VERSION);
+        IndexWriterRegistry.commit(itemType);
+        SearcherRegistry.refresh(itemType);
+        IndexProgress.finish(itemType);
+        LOGGER.debug(String.format("[SEARCH] :::::: '%s' index synchronized successfully!", itemType));
     }
 
     /**
-     * Writes all sections to a com.sonnets.sonnet.search index. Deletes any existing indexes first.
+     * Synchronizes the poem index, then loads duplicate detection from it; hidden poems are never indexed.
      */
-    private void indexSections() {
-        LOGGER.debug("[SEARCH] :::::: Starting to write section index...");
-        List<Section> sections = sectionRepositoryBase.findAll();
-        LOGGER.debug(String.format("[SEARCH] :::::: Sections to index: %s.", sections.size()));
-
-        int counter = 0;
-        ArrayList<Document> documents = new ArrayList<>();
-        for (Section s : sections) {
-            Document document = SearchRepository.parseCommonFields(new Document(), s);
-            document.add(new StringField(SearchConstants.PARENT_ID, s.getParentId().toString(), Field.Store.YES));
-            document.add(new TextField(SearchConstants.PARENT_TITLE, s.getParentTitle(), Field.Store.YES));
-            document.add(getTextField(s.getText()));
-
-            documents.add(document);
-            if (counter % 25 == 0) {
-                LOGGER.debug(String.format("[SEARCH] :::::: id: %s | '%s' added to document index.", s.getId(),
-                        s.getTitle()));
-            }
-            counter++;
-        }
+    private void indexPoems() {
+        syncIndex(TypeConstants.POEM, poemRepository::getIndexVersions,
+                stale -> StreamingIndexer.index(TypeConstants.POEM, stale, poemRepository::findAllByIdIn,
+                        SearchRepository::poemDocument),
+                id -> SearchRepository.deleteDocument(id, TypeConstants.POEM));
+        PoemDuplicates.load();
+    }
 
-        SearchRepository.addDocuments(documents, TypeConstants.SECTION);
-        LOGGER.debug("[SEARCH] :::::: sections indexed successfully!");
+    private void indexSections() {
+        syncIndex(TypeConstants.SECTION, sectionRepositoryBase::getIndexVersions,
+                stale -> StreamingIndexer.index(TypeConstants.SECTION, stale, sectionRepositoryBase::findAllByIdIn,
+                        SearchRepository::sectionDocument),
+                id -> SearchRepository.deleteDocument(id, TypeConstants.SECTION));
     }
 
     private void indexShortStories() {
-        LOGGER.debug("[SEARCH] :::::: Starting to write section index...");
-        List<ShortStory> shortStories = shortStoryRepository.findAll();
-        LOGGER.debug(String.format("[SEARCH] :::::: Short stories to index: %s.", shortStories.size()));
-
-        int counter = 0;
-        List<Document> documents = new ArrayList<>();
-        for (ShortStory s : shortStories) {
-            Document document = SearchRepository.parseCommonFields(new Document(), s);
-            document.add(getTextField(s.getText()));
-            documents.add(document);
-            if (counter % 25 == 0) {
-                LOGGER.debug(String.format("[SEARCH] :::::: id: %s | '%s' added to document index.", s.getId(),
-                        s.getTitle()));
-            }
-            counter++;
-        }
-        SearchRepository.addDocuments(documents, TypeConstants.SHORT_STORY);
-        LOGGER.debug("[SEARCH] :::::: Short stories indexed successfully!");
+        syncIndex(TypeConstants.SHORT_STORY, shortStoryRepository::getIndexVersions,
+                stale -> StreamingIndexer.index(TypeConstants.SHORT_STORY, stale,
+                        shortStoryRepository::findAllByIdIn, SearchRepository::shortStoryDocument),
+                id -> SearchRepository.deleteDocument(id, TypeConstants.SHORT_STORY));
     }
 
-    private void indexPlays() {
-        LOGGER.debug("[SEARCH] :::::: Starting to write play index...");
-        // Clear the play and dialog lines indexes manually.
-        SearchRepository.clearIndex(TypeConstants.PLAY);
-        SearchRepository.clearIndex(TypeConstants.DILI);
-        List<Play> plays = playRepository.findAll();
-        LOGGER.debug(String.format("[SEARCH] :::::: Plays to index: %s.", plays.size()));
-
-        int counter = 0;
-        for (Play p : plays) {
-            PlayService.addSearchDocument(p);
-            if (counter % 25 == 0) {
-                LOGGER.debug(String.format("[SEARCH] :::::: id: %s | '%s' added to document index.", p.getId(),
-                        p.getTitle()));
-            }
-            counter++;
-        }
-        LOGGER.debug("[SEARCH] :::::: Plays indexed successfully!");
+    private void indexAuthors() {
+        syncIndex(TypeConstants.AUTHOR, authorRepository::getIndexVersions,
+                stale -> StreamingIndexer.index(TypeConstants.AUTHOR, stale, authorRepository::findAllById,
+                        SearchRepository::authorDocument),
+                id -> SearchRepository.deleteDocument(id, TypeConstants.AUTHOR));
     }
 
-    private void indexAuthors() {
-        LOGGER.debug("[SEARCH] :::::: Starting to write author index...");
-        List<Author> authors = authorRepository.findAll();
-        LOGGER.debug(String.format("[SEARCH] :::::: Authors to index: %s.", authors.size()));
-
-        int counter = 0;
-        List<Document> documents = new ArrayList<>();
-        for (Author a : authors) {
-            Document document = new Document();
-            document.add(new StringField(SearchConstants.ID, String.valueOf(a.getId()), Field.Store.YES));
-            document.add(new TextField(SearchConstants.AUTHOR_FIRST_NAME, a.getFirstName(), Field.Store.YES));
-            document.add(new TextField(SearchConstants.AUTHOR_LAST_NAME, a.getLastName(), Field.Store.YES));
-            documents.add(document);
-            if (counter % 25 == 0) {
-                LOGGER.debug(String.format("[SEARCH] :::::: id: %s | '%s' added to document index.", a.getId(),
-                        a.getLastName()));
-            }
-            counter++;
+    /**
+     * Synchronizes the play index. Dialog lines are versioned by their play: when a play is stale its dialog lines
+     * are rewritten with it, and a rebuild of the play index rebuilds the dialog lines index too. Both indexes are
+     * committed once, at the end.
+     */
+    private void indexPlays() {
+        IndexProgress.start(TypeConstants.DILI, 0);
+        if (!SearchConstants.INDEX_VERSION.equals(IndexWriterRegistry.getIndexVersion(TypeConstants.PLAY))) {
+            SearchRepository.clearIndex(TypeConstants.DILI);
         }
+        syncIndex(TypeConstants.PLAY, playRepository::getIndexVersions, stale -> {
+            for (int i = 0; i < stale.size(); i += SearchConstants.REINDEX_BATCH_SIZE) {
+                List<Long> batch = stale.subList(i, Math.min(i + SearchConstants.REINDEX_BATCH_SIZE, stale.size()));
+                playRepository.findAllByIdIn(batch).forEach(SearchRepository::writePlay);
+                IndexProgress.advance(TypeConstants.PLAY, batch.size());
+            }
+        }, LuceneConfig::removePlay);
+        IndexWriterRegistry.commit(TypeConstants.DILI);
+        SearcherRegistry.refresh(TypeConstants.DILI);
+        IndexProgress.finish(TypeConstants.DILI);
+    }
 
-        SearchRepository.addDocuments(documents, TypeConstants.AUTHOR);
-        LOGGER.debug("[SEARCH] :::::: Authors indexed successfully!");
+    private static void removePlay(final String id) {
+        SearchRepository.deleteDocument(id, TypeConstants.PLAY);
+        SearchRepository.deleteChildren(id, TypeConstants.DILI);
     }
 }
@@ -0,0 +1,101 @@
+package org.acl.database.config;
+
+import org.acl.database.persistence.models.base.PoemTextConverter;
+import org.apache.log4j.Logger;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Poem lines used to be an element collection in the poem_text table (one row per line) and are now a single TEXT
+ * column on poem (see PoemTextConverter.) While the context starts, once the EntityManagerFactory has added the text
+ * column and before anything can read poems (the web server, the search indexes and the cache warmer only start
+ * once the context is ready), every poem without text that still has rows in poem_text gets them copied over, a
+ * batch of poems at a time. Poems that already have text are never touched, so this is safe to run on every start;
+ * once it reports nothing to migrate, poem_text can be dropped.
+ *
+ * @author Josh Harkema
+ */
+@Configuration
+public class PoemTextMigration implements InitializingBean {
+    private static final Logger LOGGER = Logger.getLogger(PoemTextMigration.class);
+    private static final String LEGACY_TABLE = "poem_text";
+    private static final int BATCH_SIZE = 500;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final PoemTextConverter converter = new PoemTextConverter();
+
+    /**
+     * @param jdbcTemplate         the template to migrate with.
+     * @param entityManagerFactory only injected so that it, and its schema update, is created first.
+     */
+    @Autowired
+    public PoemTextMigration(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        migrate();
+    }
+
+    private void migrate() {
+        if (!legacyTableExists()) {
+            return;
+        }
+        List<Long> ids = jdbcTemplate.queryForList("SELECT p.id FROM poem p WHERE p.text IS NULL " +
+                "AND EXISTS (SELECT 1 FROM " + LEGACY_TABLE + " t WHERE t.poem_id = p.id) " +
+                "ORDER BY p.id", Long.class);
+        if (ids.isEmpty()) {
+            LOGGER.debug("No poem text left to migrate, " + LEGACY_TABLE + " can be dropped.");
+            return;
+        }
+
+        LOGGER.info("Migrating the text of " + ids.size() + " poems from " + LEGACY_TABLE + "...");
+        for (int i = 0; i < ids.size(); i += BATCH_SIZE) {
+            migrateBatch(ids.subList(i, Math.min(i + BATCH_SIZE, ids.size())));
+        }
+        LOGGER.info("Poem text migrated, " + LEGACY_TABLE + " can be dropped.");
+    }
+
+    /**
+     * poem_text has no column recording the position of a line: Hibernate wrote each (unordered) list in order and
+     * read it back without an ORDER BY. This assumes, as that did, InnoDB: a table without a primary key is stored in
+     * insertion order (by its hidden row id) and the poem_id foreign key index keeps equal keys in that order, so
+     * ordering by poem_id returns each poem's lines in the order they were written, grouped by poem.
+     */
+    private void migrateBatch(final List<Long> ids) {
+        Map<Long, List<String>> lines = new LinkedHashMap<>();
+        namedJdbcTemplate.query("SELECT t.poem_id, t.text FROM " + LEGACY_TABLE + " t " +
+                        "WHERE t.poem_id IN (:ids) ORDER BY t.poem_id",
+                new MapSqlParameterSource("ids", ids), (RowCallbackHandler) rs ->
+                        lines.computeIfAbsent(rs.getLong(1), k -> new ArrayList<>()).add(rs.getString(2)));
+
+        List<Object[]> updates = new ArrayList<>(lines.size());
+        lines.forEach((id, text) -> updates.add(new Object[]{converter.convertToDatabaseColumn(text), id}));
+        jdbcTemplate.batchUpdate("UPDATE poem SET text = ? WHERE id = ? AND text IS NULL", updates);
+    }
+
+    private boolean legacyTableExists() {
+        Boolean exists = jdbcTemplate.execute((Connection connection) -> {
+            try (ResultSet tables = connection.getMetaData().getTables(connection.getCatalog(), null,
+                    LEGACY_TABLE, new String[]{"TABLE"})) {
+                return tables.next();
+            }
+        });
+        return exists != null && exists;
+    }
+}
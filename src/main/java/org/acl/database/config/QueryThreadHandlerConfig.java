@@ -5,17 +5,31 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.core.task.TaskExecutor;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
+import java.util.concurrent.ThreadPoolExecutor;
+
 /**
+ * Executor used to fan search queries out across the Lucene indexes.
+ *
  * @author Josh Harkema
  */
 @Configuration
 public class QueryThreadHandlerConfig {
+    private static final int CORE_POOL_SIZE = 6;
+    private static final int MAX_POOL_SIZE = 12;
+    private static final int QUEUE_CAPACITY = 100;
 
+    /**
+     * The queue is bounded; when it is full the caller runs the task itself rather than failing the search.
+     *
+     * @return the search executor.
+     */
     @Bean
     public TaskExecutor threadPoolTaskExecutor() {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(6);
-        executor.setMaxPoolSize(12);
+        executor.setCorePoolSize(CORE_POOL_SIZE);
+        executor.setMaxPoolSize(MAX_POOL_SIZE);
+        executor.setQueueCapacity(QUEUE_CAPACITY);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
         executor.setThreadNamePrefix("query_");
         executor.initialize();
 
@@ -1,12 +1,18 @@
 package org.acl.database.controllers.base;
 
 import io.swagger.annotations.*;
+import org.acl.database.cache.ItemRef;
 import org.acl.database.persistence.dtos.base.BookDto;
 import org.acl.database.persistence.dtos.base.BookOutDto;
+import org.acl.database.persistence.dtos.base.ImportResultDto;
+import org.acl.database.persistence.dtos.base.SectionOutDto;
 import org.acl.database.persistence.models.base.Book;
 import org.acl.database.services.base.BookService;
 import org.acl.database.tools.FormatTools;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.context.annotation.PropertySource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -16,6 +22,8 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
 import java.security.Principal;
 import java.util.Collections;
 import java.util.List;
@@ -29,6 +37,11 @@ import java.util.List;
 @PropertySource("classpath:global.properties")
 @Api(tags = "Book Endpoints")
 public class BookController implements AbstractItemController<Book, BookDto, BookOutDto> {
+    private static final String SECTION_CACHE_ALL_SECURE = "SECTION_ALL_SECURE";
+    private static final String SECTION_CACHE_ALL = "SECTION_ALL";
+    private static final String SECTION_CACHE_BY_BOOK = "SECTION_BY_BOOK";
+    private static final String CACHE_ALL = "BOOK_ALL";
+    private static final String NDJSON = "application/x-ndjson";
     private final BookService bookService;
 
     @Autowired
@@ -40,6 +53,7 @@ public class BookController implements AbstractItemController<Book, BookDto, Boo
     @CrossOrigin(origins = "${allowed-origin}")
     @PreAuthorize("hasAnyAuthority('ADMIN', 'USER')")
     @PostMapping(value = "/secure/book", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @CacheEvict(value = CACHE_ALL, allEntries = true)
     @ApiOperation(value = "Add Book",
             notes = "Adds a new book to the database.",
             authorizations = {
@@ -59,10 +73,47 @@ public class BookController implements AbstractItemController<Book, BookDto, Boo
         return bookService.add(dto);
     }
 
+    @CrossOrigin(origins = "${allowed-origin}")
+    @PreAuthorize("hasAnyAuthority('ADMIN', 'USER')")
+    @PostMapping(value = "/secure/book/import", consumes = NDJSON, produces = MediaType.APPLICATION_JSON_VALUE)
+    @Caching(evict = {
+            @CacheEvict(value = SECTION_CACHE_ALL_SECURE, allEntries = true),
+            @CacheEvict(value = SECTION_CACHE_ALL, allEntries = true),
+            @CacheEvict(value = CACHE_ALL, allEntries = true)
+    })
+    @ApiOperation(value = "Import Book",
+            notes = "Adds a book and all of its sections from newline delimited JSON. The first line is the book (in " +
+                    "the same format as Add Book), every following line is a section (title, description and text) " +
+                    "in reading order.",
+            authorizations = {
+                    @Authorization(value = "oauth",
+                            scopes = {
+                                    @AuthorizationScope(scope = "admin", description = "Administrative scope."),
+                                    @AuthorizationScope(scope = "user", description = "User scope.")
+                            }
+                    )
+            })
+    @ApiResponses(value = {
+            @ApiResponse(code = 201, response = ImportResultDto.class, message = "Book imported."),
+            @ApiResponse(code = 400, message = "The first line is not a valid book."),
+            @ApiResponse(code = 409, message = "A book with that title and author already exists."),
+            @ApiResponse(code = 401, message = "Unauthorized request.")
+    })
+    public ResponseEntity<ImportResultDto> importBook(InputStream body) throws IOException {
+        return bookService.importBook(body);
+    }
+
     @Override
     @CrossOrigin(origins = "${allowed-origin}")
     @PreAuthorize("hasAnyAuthority('ADMIN', 'USER')")
     @DeleteMapping(value = "/secure/book/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Caching(evict = {
+            // The book's sections are deleted with it.
+            @CacheEvict(value = SECTION_CACHE_ALL_SECURE, allEntries = true),
+            @CacheEvict(value = SECTION_CACHE_ALL, allEntries = true),
+            @CacheEvict(value = SECTION_CACHE_BY_BOOK, key = "#id"),
+            @CacheEvict(value = CACHE_ALL, key = ItemRef.ID)
+    })
     @ApiOperation(value = "Delete Book",
             notes = "Delete an existing book.",
             authorizations = {
@@ -95,6 +146,25 @@ public class BookController implements AbstractItemController<Book, BookDto, Boo
         return bookService.getById(id);
     }
 
+    @CrossOrigin(origins = "${allowed-origin}")
+    @GetMapping(value = "/book/{id}/summary", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ApiOperation(value = "Get Book Summary by ID", notes = "Returns a book's details, without its sections.")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, response = BookOutDto.class, message = "OK"),
+            @ApiResponse(code = 404, message = "A book with the requested ID does not exist.")
+    })
+    public BookOutDto getSummary(@PathVariable("id") Long id) {
+        return bookService.getSummary(id);
+    }
+
+    @CrossOrigin(origins = "${allowed-origin}")
+    @GetMapping(value = "/book/{id}/sections", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ApiOperation(value = "Get Book Section Titles by ID", notes = "Returns the titles of a book's sections in " +
+            "order, without their text.")
+    public List<SectionOutDto> getSectionTitles(@PathVariable("id") Long id) {
+        return bookService.getSectionTitles(id);
+    }
+
     @Override
     @CrossOrigin(origins = "${allowed-origin}")
     @GetMapping(value = "/book/by_ids/{ids}", produces = MediaType.APPLICATION_JSON_VALUE)
@@ -110,6 +180,7 @@ public class BookController implements AbstractItemController<Book, BookDto, Boo
     @Override
     @CrossOrigin(origins = "${allowed-origin}")
     @GetMapping(value = "/book/all", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Cacheable(value = CACHE_ALL, sync = true)
     @ApiOperation(value = "Get All Books", notes = "Returns a list of all the public domain books in the database.")
     public List<BookOutDto> getAll() {
         return bookService.getAll();
@@ -166,6 +237,10 @@ public class BookController implements AbstractItemController<Book, BookDto, Boo
     @CrossOrigin(origins = "${allowed-origin}")
     @PreAuthorize("hasAnyAuthority('ADMIN', 'USER')")
     @PutMapping(value = "/secure/book", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Caching(evict = {
+            @CacheEvict(value = CACHE_ALL, key = ItemRef.DTO_ID),
+            @CacheEvict(value = CACHE_ALL, allEntries = true, condition = "#dto.publicDomain == true")
+    })
     @ApiOperation(value = "Modify Book",
             notes = "Modify an existing book.",
             authorizations = {
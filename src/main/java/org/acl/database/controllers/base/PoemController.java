@@ -1,6 +1,8 @@
 package org.acl.database.controllers.base;
 
 import io.swagger.annotations.*;
+import org.acl.database.cache.ItemRef;
+import org.acl.database.persistence.dtos.base.ImportResultDto;
 import org.acl.database.persistence.dtos.base.PoemDto;
 import org.acl.database.persistence.dtos.base.PoemOutDto;
 import org.acl.database.persistence.models.base.Poem;
@@ -13,12 +15,15 @@ import org.springframework.cache.annotation.Caching;
 import org.springframework.context.annotation.PropertySource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
 import java.security.Principal;
 import java.util.List;
 
@@ -37,6 +42,7 @@ public class PoemController implements AbstractItemController<Poem, PoemDto, Poe
     private static final String CACHE_BY_ID = "POEM_BY_ID";
     private static final String CACHE_BY_IDS = "POEM_BY_IDS";
     private static final String CACHE_BY_FORM = "POEM_BY_FORM";
+    private static final String NDJSON = "application/x-ndjson";
 
     @Autowired
     public PoemController(PoemService poemService) {
@@ -71,16 +77,43 @@ public class PoemController implements AbstractItemController<Poem, PoemDto, Poe
         return poemService.add(dto);
     }
 
+    @CrossOrigin(origins = "${allowed-origin}")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @PostMapping(value = "/secure/poem/bulk", consumes = NDJSON, produces = MediaType.APPLICATION_JSON_VALUE)
+    @Caching(evict = {
+            @CacheEvict(value = CACHE_ALL_SECURE, allEntries = true),
+            @CacheEvict(value = CACHE_ALL, allEntries = true),
+            @CacheEvict(value = CACHE_BY_FORM, allEntries = true)
+    })
+    @ApiOperation(value = "Bulk Add Poems",
+            notes = "Adds many poems at once from newline delimited JSON (one poem per line, in the same format as " +
+                    "Add Poem.) Returns the number of poems added, the number skipped as duplicates, and the lines " +
+                    "that were rejected.",
+            authorizations = {
+                    @Authorization(value = "oauth",
+                            scopes = {
+                                    @AuthorizationScope(scope = "admin", description = "Administrative scope.")
+                            }
+                    )
+            })
+    @ApiResponses(value = {
+            @ApiResponse(code = 201, response = ImportResultDto.class, message = "Import completed."),
+            @ApiResponse(code = 401, message = "Unauthorized request.")
+    })
+    public ResponseEntity<ImportResultDto> bulkAdd(InputStream body) throws IOException {
+        return new ResponseEntity<>(poemService.bulkAdd(body), HttpStatus.CREATED);
+    }
+
     @Override
     @CrossOrigin(origins = "${allowed-origin}")
     @PreAuthorize("hasAnyAuthority('ADMIN', 'USER')")
     @DeleteMapping(value = "/secure/poem/{id}")
     @Caching(evict = {
-            @CacheEvict(value = CACHE_ALL_SECURE, allEntries = true),
-            @CacheEvict(value = CACHE_ALL, allEntries = true),
-            @CacheEvict(value = CACHE_BY_IDS, allEntries = true),
+            @CacheEvict(value = CACHE_ALL_SECURE, key = ItemRef.ID),
+            @CacheEvict(value = CACHE_ALL, key = ItemRef.ID),
+            @CacheEvict(value = CACHE_BY_IDS, key = ItemRef.ID),
             @CacheEvict(value = CACHE_BY_ID, key = "#id"),
-            @CacheEvict(value = CACHE_BY_FORM, allEntries = true)
+            @CacheEvict(value = CACHE_BY_FORM, key = ItemRef.ID)
     })
     @ApiOperation(value = "Delete Poem",
             notes = "Delete an existing poem.",
@@ -105,7 +138,7 @@ public class PoemController implements AbstractItemController<Poem, PoemDto, Poe
     @Override
     @CrossOrigin(origins = "${allowed-origin}")
     @GetMapping(value = "/poem/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
-    @Cacheable(value = CACHE_BY_ID, key = "#id")
+    @Cacheable(value = CACHE_BY_ID, key = "#id", sync = true)
     @ApiOperation(value = "Get Poem by ID", notes = "Returns a poem from its database ID.")
     @ApiResponses(value = {
             @ApiResponse(code = 200, response = Poem.class, message = "OK"),
@@ -118,7 +151,7 @@ public class PoemController implements AbstractItemController<Poem, PoemDto, Poe
     @Override
     @CrossOrigin(origins = "${allowed-origin}")
     @GetMapping(value = "/poem/by_ids/{ids}", produces = MediaType.APPLICATION_JSON_VALUE)
-    @Cacheable(value = CACHE_BY_IDS, key = "#ids")
+    @Cacheable(value = CACHE_BY_IDS, key = "#ids", sync = true)
     @ApiOperation(value = "Get Poems by List of IDs", notes = "Returns a list of poems from a list of database IDs.")
     @ApiResponses(value = {
             @ApiResponse(code = 200, response = Poem.class, responseContainer = "List", message = "OK"),
@@ -131,7 +164,7 @@ public class PoemController implements AbstractItemController<Poem, PoemDto, Poe
     @Override
     @CrossOrigin(origins = "${allowed-origin}")
     @GetMapping(value = "/poem/all", produces = MediaType.APPLICATION_JSON_VALUE)
-    @Cacheable(value = CACHE_ALL)
+    @Cacheable(value = CACHE_ALL, sync = true)
     @ApiOperation(value = "Get all Public Domain Poems", notes = "Returns a list of all public domain poems in the db.")
     public List<PoemOutDto> getAll() {
         return poemService.getAll();
@@ -141,7 +174,7 @@ public class PoemController implements AbstractItemController<Poem, PoemDto, Poe
     @CrossOrigin(origins = "${allowed-origin}")
     @PreAuthorize("hasAnyAuthority('ADMIN', 'USER')")
     @GetMapping(value = "/secure/poem/all", produces = MediaType.APPLICATION_JSON_VALUE)
-    @Cacheable(value = CACHE_ALL_SECURE)
+    @Cacheable(value = CACHE_ALL_SECURE, sync = true)
     @ApiOperation(value = "Get all Poems",
             notes = "Returns a list of all poems in the database",
             authorizations = {
@@ -189,9 +222,12 @@ public class PoemController implements AbstractItemController<Poem, PoemDto, Poe
     @PreAuthorize("hasAnyAuthority('ADMIN', 'USER')")
     @PutMapping(value = "/secure/poem", consumes = MediaType.APPLICATION_JSON_VALUE)
     @Caching(evict = {
-            @CacheEvict(value = CACHE_ALL_SECURE, allEntries = true),
-            @CacheEvict(value = CACHE_ALL, allEntries = true),
+            @CacheEvict(value = CACHE_ALL_SECURE, key = ItemRef.DTO_ID),
+            @CacheEvict(value = CACHE_ALL, key = ItemRef.DTO_ID),
+            @CacheEvict(value = CACHE_ALL, allEntries = true, condition = "#dto.publicDomain == true"),
             @CacheEvict(value = CACHE_BY_ID, key = "#dto.id"),
+            @CacheEvict(value = CACHE_BY_IDS, key = ItemRef.DTO_ID),
+            @CacheEvict(value = CACHE_BY_FORM, key = ItemRef.DTO_ID),
             @CacheEvict(value = CACHE_BY_FORM, key = "#dto.form")
     })
     @ApiOperation(value = "Modify Poem",
@@ -219,7 +255,7 @@ public class PoemController implements AbstractItemController<Poem, PoemDto, Poe
      */
     @CrossOrigin(origins = "${allowed-origin}")
     @GetMapping(value = "/poem/by_form/{form}", produces = MediaType.APPLICATION_JSON_VALUE)
-    @Cacheable(value = CACHE_BY_FORM, key = "#form")
+    @Cacheable(value = CACHE_BY_FORM, key = "#form", sync = true)
     @ApiOperation(value = "Get all Poems by Form", notes = "Returns a list of poems by form (i.e. sonnet)")
     @ApiResponses(value = {
             @ApiResponse(code = 200, response = Poem.class, responseContainer = "List", message = "OK"),
@@ -1,6 +1,7 @@
 package org.acl.database.controllers.base;
 
 import io.swagger.annotations.*;
+import org.acl.database.cache.ItemRef;
 import org.acl.database.persistence.dtos.annotation.AnnotationDto;
 import org.acl.database.persistence.dtos.base.SectionDto;
 import org.acl.database.persistence.dtos.base.SectionOutDto;
@@ -75,9 +76,9 @@ public class SectionController implements AbstractItemController<Section, Sectio
     @PreAuthorize("hasAnyAuthority('ADMIN', 'USER')")
     @DeleteMapping(value = "/secure/section/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
     @Caching(evict = {
-            @CacheEvict(value = CACHE_ALL_SECURE, allEntries = true),
-            @CacheEvict(value = CACHE_ALL, allEntries = true),
-            @CacheEvict(value = CACHE_BY_BOOK, allEntries = true),
+            @CacheEvict(value = CACHE_ALL_SECURE, key = ItemRef.ID),
+            @CacheEvict(value = CACHE_ALL, key = ItemRef.ID),
+            @CacheEvict(value = CACHE_BY_BOOK, key = ItemRef.ID),
             @CacheEvict(value = CACHE_BY_ID, key = "#id")
     })
     @ApiOperation(value = "Delete Section",
@@ -102,7 +103,7 @@ public class SectionController implements AbstractItemController<Section, Sectio
     @Override
     @CrossOrigin(origins = "${allowed-origin}")
     @GetMapping(value = "/section/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
-    @Cacheable(value = CACHE_BY_ID, key = "#id")
+    @Cacheable(value = CACHE_BY_ID, key = "#id", sync = true)
     @ApiOperation(value = "Get Section by ID.")
     @ApiResponses(value = {
             @ApiResponse(code = 200, response = Section.class, message = "OK"),
@@ -127,7 +128,7 @@ public class SectionController implements AbstractItemController<Section, Sectio
     @Override
     @CrossOrigin(origins = "${allowed-origin}")
     @GetMapping(value = "/section/all", produces = MediaType.APPLICATION_JSON_VALUE)
-    @Cacheable(value = CACHE_ALL)
+    @Cacheable(value = CACHE_ALL, sync = true)
     @ApiOperation(value = "Get all Public Domain Sections.")
     public List<SectionOutDto> getAll() {
         return sectionService.getAll();
@@ -137,7 +138,7 @@ public class SectionController implements AbstractItemController<Section, Sectio
     @CrossOrigin(origins = "${allowed-origin}")
     @PreAuthorize("hasAnyAuthority('ADMIN', 'USER')")
     @GetMapping(value = "/secure/section/all", produces = MediaType.APPLICATION_JSON_VALUE)
-    @Cacheable(value = CACHE_ALL_SECURE)
+    @Cacheable(value = CACHE_ALL_SECURE, sync = true)
     @ApiOperation(value = "Get all Sections.",
             authorizations = {
                     @Authorization(value = "oauth",
@@ -181,8 +182,10 @@ public class SectionController implements AbstractItemController<Section, Sectio
     @PreAuthorize("hasAnyAuthority('ADMIN', 'USER')")
     @PutMapping(value = "/secure/section", consumes = MediaType.APPLICATION_JSON_VALUE)
     @Caching(evict = {
-            @CacheEvict(value = CACHE_ALL_SECURE, allEntries = true),
-            @CacheEvict(value = CACHE_ALL, allEntries = true),
+            @CacheEvict(value = CACHE_ALL_SECURE, key = ItemRef.DTO_ID),
+            @CacheEvict(value = CACHE_ALL, key = ItemRef.DTO_ID),
+            @CacheEvict(value = CACHE_ALL, allEntries = true, condition = "#dto.publicDomain == true"),
+            @CacheEvict(value = CACHE_BY_BOOK, key = ItemRef.DTO_ID),
             @CacheEvict(value = CACHE_BY_BOOK, key = "#dto.bookId"),
             @CacheEvict(value = CACHE_BY_ID, key = "#dto.id")
     })
@@ -211,7 +214,7 @@ public class SectionController implements AbstractItemController<Section, Sectio
      */
     @CrossOrigin(origins = "${allowed-origin}")
     @GetMapping(value = "/section/from_book/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
-    @Cacheable(value = CACHE_BY_BOOK, key = "#bookId")
+    @Cacheable(value = CACHE_BY_BOOK, key = "#bookId", sync = true)
     @ApiOperation(value = "Get all Sections from Book")
     @ApiResponses(value = {
             @ApiResponse(code = 200, response = Section.class, responseContainer = "List", message = "OK"),
@@ -247,10 +250,10 @@ public class SectionController implements AbstractItemController<Section, Sectio
     @PreAuthorize("hasAnyAuthority('ADMIN', 'USER')")
     @PutMapping(value = "/secure/section/add_narrator", consumes = MediaType.APPLICATION_JSON_VALUE)
     @Caching(evict = {
-            @CacheEvict(value = CACHE_ALL_SECURE, allEntries = true),
-            @CacheEvict(value = CACHE_ALL, allEntries = true),
-            @CacheEvict(value = CACHE_BY_BOOK, allEntries = true),
-            @CacheEvict(value = CACHE_BY_ID, key = "#dto.id")
+            @CacheEvict(value = CACHE_ALL_SECURE, key = "T(org.acl.database.cache.ItemRef).of(#dto.sectionId)"),
+            @CacheEvict(value = CACHE_ALL, key = "T(org.acl.database.cache.ItemRef).of(#dto.sectionId)"),
+            @CacheEvict(value = CACHE_BY_BOOK, key = "T(org.acl.database.cache.ItemRef).of(#dto.sectionId)"),
+            @CacheEvict(value = CACHE_BY_ID, key = "#dto.sectionId")
     })
     public Section addNarrator(@RequestBody @Valid AnnotationDto dto) {
         return sectionService.setNarrator(dto);
@@ -266,9 +269,9 @@ public class SectionController implements AbstractItemController<Section, Sectio
     @PreAuthorize("hasAnyAuthority('ADMIN', 'USER')")
     @DeleteMapping(value = "/secure/section/remove_narrator/{sectionId}")
     @Caching(evict = {
-            @CacheEvict(value = CACHE_ALL_SECURE, allEntries = true),
-            @CacheEvict(value = CACHE_ALL, allEntries = true),
-            @CacheEvict(value = CACHE_BY_BOOK, allEntries = true),
+            @CacheEvict(value = CACHE_ALL_SECURE, key = "T(org.acl.database.cache.ItemRef).of(#sectionId)"),
+            @CacheEvict(value = CACHE_ALL, key = "T(org.acl.database.cache.ItemRef).of(#sectionId)"),
+            @CacheEvict(value = CACHE_BY_BOOK, key = "T(org.acl.database.cache.ItemRef).of(#sectionId)"),
             @CacheEvict(value = CACHE_BY_ID, key = "#sectionId")
     })
     public ResponseEntity<Void> deleteNarrator(@PathVariable("sectionId") Long sectionId) {
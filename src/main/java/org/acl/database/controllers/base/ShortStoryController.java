@@ -1,6 +1,7 @@
 package org.acl.database.controllers.base;
 
 import io.swagger.annotations.*;
+import org.acl.database.cache.ItemRef;
 import org.acl.database.persistence.dtos.base.ShortStoryDto;
 import org.acl.database.persistence.dtos.base.ShortStoryOutDto;
 import org.acl.database.persistence.models.base.ShortStory;
@@ -32,8 +33,8 @@ import java.util.List;
 public class ShortStoryController implements AbstractItemController<ShortStory, ShortStoryDto, ShortStoryOutDto> {
     private final ShortStoryService shortStoryService;
 
-    private static final String CACHE_ALL_SECURE = " SHORT_STORY_ALL_SECURE";
-    private static final String CACHE_ALL = " SHORT_STORY_ALL";
+    private static final String CACHE_ALL_SECURE = "SHORT_STORY_ALL_SECURE";
+    private static final String CACHE_ALL = "SHORT_STORY_ALL";
     private static final String CACHE_BY_ID = " SHORT_STORY_BY_ID";
     private static final String CACHE_BY_IDS = " SHORT_STORY_BY_IDS";
 
@@ -74,9 +75,9 @@ public class ShortStoryController implements AbstractItemController<ShortStory,
     @PreAuthorize("hasAuthority('ADMIN')")
     @DeleteMapping(value = "/secure/short_story/{id}")
     @Caching(evict = {
-            @CacheEvict(value = CACHE_ALL_SECURE, allEntries = true),
-            @CacheEvict(value = CACHE_ALL, allEntries = true),
-            @CacheEvict(value = CACHE_BY_IDS, allEntries = true),
+            @CacheEvict(value = CACHE_ALL_SECURE, key = ItemRef.ID),
+            @CacheEvict(value = CACHE_ALL, key = ItemRef.ID),
+            @CacheEvict(value = CACHE_BY_IDS, key = ItemRef.ID),
             @CacheEvict(value = CACHE_BY_ID, key = "#id"),
     })
     @ApiOperation(value = "Delete Short Story",
@@ -101,7 +102,7 @@ public class ShortStoryController implements AbstractItemController<ShortStory,
     @Override
     @CrossOrigin(origins = "${allowed-origin}")
     @GetMapping(value = "/short_story/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
-    @Cacheable(value = CACHE_BY_ID, key = "#id")
+    @Cacheable(value = CACHE_BY_ID, key = "#id", sync = true)
     @ApiOperation(value = "Get Short Story by ID", notes = "Returns a short story from its database ID.")
     @ApiResponses(value = {
             @ApiResponse(code = 200, response = ShortStory.class, message = "OK"),
@@ -114,7 +115,7 @@ public class ShortStoryController implements AbstractItemController<ShortStory,
     @Override
     @CrossOrigin(origins = "${allowed-origin}")
     @GetMapping(value = "/short_story/by_ids/{ids}", produces = MediaType.APPLICATION_JSON_VALUE)
-    @Cacheable(value = CACHE_BY_IDS, key = "#ids")
+    @Cacheable(value = CACHE_BY_IDS, key = "#ids", sync = true)
     @ApiOperation(value = "Get Short Stories by List of IDs", notes = "Returns a list of short stories from a list" +
             " of database IDs.")
     @ApiResponses(value = {
@@ -128,7 +129,7 @@ public class ShortStoryController implements AbstractItemController<ShortStory,
     @Override
     @CrossOrigin(origins = "${allowed-origin}")
     @GetMapping(value = "/short_story/all", produces = MediaType.APPLICATION_JSON_VALUE)
-    @Cacheable(value = CACHE_ALL)
+    @Cacheable(value = CACHE_ALL, sync = true)
     @ApiOperation(value = "Get all Public Domain Short Stories", notes = "Returns a list of all public domain " +
             "short stories in the db.")
     public List<ShortStoryOutDto> getAll() {
@@ -139,7 +140,7 @@ public class ShortStoryController implements AbstractItemController<ShortStory,
     @CrossOrigin(origins = "${allowed-origin}")
     @PreAuthorize("hasAnyAuthority('ADMIN', 'USER')")
     @GetMapping(value = "/secure/short_story/all", produces = MediaType.APPLICATION_JSON_VALUE)
-    @Cacheable(value = CACHE_ALL_SECURE)
+    @Cacheable(value = CACHE_ALL_SECURE, sync = true)
     @ApiOperation(value = "Get all Short Stories",
             notes = "Returns a list of all short stories in the database",
             authorizations = {
@@ -188,9 +189,11 @@ public class ShortStoryController implements AbstractItemController<ShortStory,
     @PreAuthorize("hasAnyAuthority('ADMIN')")
     @PutMapping(value = "/secure/short_story", consumes = MediaType.APPLICATION_JSON_VALUE)
     @Caching(evict = {
-            @CacheEvict(value = CACHE_ALL_SECURE, allEntries = true),
-            @CacheEvict(value = CACHE_ALL, allEntries = true),
+            @CacheEvict(value = CACHE_ALL_SECURE, key = ItemRef.DTO_ID),
+            @CacheEvict(value = CACHE_ALL, key = ItemRef.DTO_ID),
+            @CacheEvict(value = CACHE_ALL, allEntries = true, condition = "#dto.publicDomain == true"),
             @CacheEvict(value = CACHE_BY_ID, key = "#dto.id"),
+            @CacheEvict(value = CACHE_BY_IDS, key = ItemRef.DTO_ID),
     })
     @ApiOperation(value = "Modify Short Story",
             notes = "Modify an existing short story.",
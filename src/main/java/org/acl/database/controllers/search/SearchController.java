@@ -28,10 +28,41 @@ public class SearchController {
     @CrossOrigin(origins = "${allowed-origin}")
     @PutMapping(value = "/search", consumes = MediaType.APPLICATION_JSON_VALUE,
             produces = MediaType.APPLICATION_JSON_VALUE)
-    @ApiOperation(value = "Run an Advanced Search", notes = "Execute an advanced search on the database.")
+    @ApiOperation(value = "Run an Advanced Search", notes = "Execute an advanced search on the database. Clauses " +
+            "on publicationYear or journalVolume may set rangeFrom and/or rangeTo. Results are ranked by relevance " +
+            "unless sort is year, period, form, category or author (prefixed with '-' for descending.)")
     public String doSearch(@RequestBody List<SearchParamDto> searchParams,
-                           @RequestParam(value = "item_types", required = false) String[] itemTypes) {
-        return searchQueryHandlerService.search(searchParams, itemTypes);
+                           @RequestParam(value = "item_types", required = false) String[] itemTypes,
+                           @RequestParam(value = "sort", required = false) String sort) {
+        return searchQueryHandlerService.search(searchParams, itemTypes, sort);
+    }
+
+    @CrossOrigin(origins = "${allowed-origin}")
+    @PutMapping(value = "/search/unified", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    @ApiOperation(value = "Run a Unified Advanced Search", notes = "Execute an advanced search across every item " +
+            "type as a single index. Results are ranked globally (or by sort: year, period, form, category or " +
+            "author, prefixed with '-' for descending) and include hit counts per category and facet counts per " +
+            "period, form, category and author.")
+    public String doUnifiedSearch(@RequestBody List<SearchParamDto> searchParams,
+                                  @RequestParam(value = "item_types", required = false) String[] itemTypes,
+                                  @RequestParam(value = "sort", required = false) String sort) {
+        return searchQueryHandlerService.unifiedSearch(searchParams, itemTypes, sort);
+    }
+
+    @CrossOrigin(origins = "${allowed-origin}")
+    @PutMapping(value = "/search/paged", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    @ApiOperation(value = "Run a Paged Advanced Search", notes = "Execute an advanced search one page at a time. " +
+            "Pass the nextCursor from a response as cursor (with the same item_types and sort) to get the next " +
+            "page; nextCursor is omitted on the last page. Every page reads the indexes as they were for the first " +
+            "page. Sort is as for an advanced search. Returns 400 if the cursor is invalid or has expired.")
+    public String doPagedSearch(@RequestBody List<SearchParamDto> searchParams,
+                                @RequestParam(value = "item_types", required = false) String[] itemTypes,
+                                @RequestParam(value = "sort", required = false) String sort,
+                                @RequestParam(value = "cursor", required = false) String cursor,
+                                @RequestParam(value = "page_size", required = false) Integer pageSize) {
+        return searchQueryHandlerService.pagedSearch(searchParams, itemTypes, sort, cursor, pageSize);
     }
 
     @CrossOrigin(origins = "${allowed-origin}")
@@ -41,4 +72,12 @@ public class SearchController {
     public String doBasicSearch(@RequestParam(value = "search_string") String searchString) {
         return searchQueryHandlerService.basicSearch(searchString);
     }
+
+    @CrossOrigin(origins = "${allowed-origin}")
+    @GetMapping(value = "/search/index_status", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ApiOperation(value = "Get Index Status", notes = "Returns the progress of the background index " +
+            "synchronization. Searches run against whatever is already indexed while it is in progress.")
+    public String getIndexStatus() {
+        return searchQueryHandlerService.getIndexStatus();
+    }
 }
@@ -100,7 +100,7 @@ public class PlayController {
 
     @CrossOrigin(origins = "${allowed-origin}")
     @GetMapping(value = "/play/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
-    @Cacheable(value = TheaterCacheConstants.CACHE_BY_ID, key = "#id")
+    @Cacheable(value = TheaterCacheConstants.CACHE_BY_ID, key = "#id", sync = true)
     @ApiOperation(value = "Get Play by ID", notes = "Returns a play from its database ID.")
     @ApiResponses(value = {
             @ApiResponse(code = 200, response = Play.class, message = "OK"),
@@ -0,0 +1,51 @@
+package org.acl.database.controllers.web;
+
+import io.swagger.annotations.*;
+import org.acl.database.cache.TwoTierCacheManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.PropertySource;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * Exposes the state of the response caches.
+ *
+ * @author Josh Harkema
+ */
+@RestController
+@PropertySource("classpath:global.properties")
+@Api(tags = "Cache Endpoints")
+public class CacheController {
+    private final TwoTierCacheManager cacheManager;
+
+    @Autowired
+    public CacheController(TwoTierCacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    @CrossOrigin(origins = "${allowed-origin}")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @GetMapping(value = "/secure/cache/stats", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ApiOperation(value = "Get Cache Statistics",
+            notes = "Returns the hits, misses and hit ratio of the in-memory (l1) and Redis (l2) tier of every " +
+                    "cache used since this node started. Redis is only asked on an l1 miss.",
+            authorizations = {
+                    @Authorization(value = "oauth",
+                            scopes = {
+                                    @AuthorizationScope(scope = "admin", description = "Administrative scope.")
+                            }
+                    )
+            })
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "OK"),
+            @ApiResponse(code = 401, message = "Unauthorized request.")
+    })
+    public Map<String, Map<String, Object>> getStats() {
+        return cacheManager.snapshot();
+    }
+}
@@ -2,9 +2,10 @@ package org.acl.database.persistence.dtos.base;
 
 import org.acl.database.persistence.models.base.Author;
 
+import java.io.Serializable;
 import java.util.Date;
 
-public class BookOutDto {
+public class BookOutDto implements Serializable {
     private Long id;
     private Author author;
     private String title;
@@ -12,6 +13,9 @@ public class BookOutDto {
     private Date dateOfPublication;
     private String category;
 
+    public BookOutDto() {
+    }
+
     public BookOutDto(Long id, Author author, String title, String type, Date dateOfPublication, String category) {
         this.id = id;
         this.author = author;
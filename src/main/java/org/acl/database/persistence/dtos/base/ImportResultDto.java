@@ -0,0 +1,65 @@
+package org.acl.database.persistence.dtos.base;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The outcome of a bulk import: how many items were added, how many were skipped as duplicates, and why any other
+ * lines were rejected.
+ *
+ * @author Josh Harkema
+ */
+public class ImportResultDto {
+    private int added;
+    private int duplicates;
+    private List<String> errors;
+
+    public ImportResultDto() {
+        this.errors = new ArrayList<>();
+    }
+
+    public void addError(final int line, final String message) {
+        errors.add(String.format("line %d: %s", line, message));
+    }
+
+    public void incrementAdded() {
+        added++;
+    }
+
+    public void incrementDuplicates() {
+        duplicates++;
+    }
+
+    public int getAdded() {
+        return added;
+    }
+
+    public void setAdded(int added) {
+        this.added = added;
+    }
+
+    public int getDuplicates() {
+        return duplicates;
+    }
+
+    public void setDuplicates(int duplicates) {
+        this.duplicates = duplicates;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<String> errors) {
+        this.errors = errors;
+    }
+
+    @Override
+    public String toString() {
+        return "ImportResultDto{" +
+                "added=" + added +
+                ", duplicates=" + duplicates +
+                ", errors=" + errors +
+                '}';
+    }
+}
@@ -0,0 +1,43 @@
+package org.acl.database.persistence.dtos.base;
+
+import java.util.Date;
+
+/**
+ * The id and last modified date of a persisted item; compared against the search index at startup to find stale
+ * documents without loading whole entities.
+ *
+ * @author Josh Harkema
+ */
+public class IndexVersionDto {
+    private Long id;
+    private Date lastModifiedDate;
+
+    public IndexVersionDto(Long id, Date lastModifiedDate) {
+        this.id = id;
+        this.lastModifiedDate = lastModifiedDate;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Date getLastModifiedDate() {
+        return lastModifiedDate;
+    }
+
+    public void setLastModifiedDate(Date lastModifiedDate) {
+        this.lastModifiedDate = lastModifiedDate;
+    }
+
+    @Override
+    public String toString() {
+        return "IndexVersionDto{" +
+                "id=" + id +
+                ", lastModifiedDate=" + lastModifiedDate +
+                '}';
+    }
+}
@@ -13,6 +13,9 @@ public class PoemOutDto implements Serializable {
     private String form;
     private String category;
 
+    public PoemOutDto() {
+    }
+
     public PoemOutDto(Long id, Author author, String title, String sourceTitle, String period, String form,
                       String category) {
         this.id = id;
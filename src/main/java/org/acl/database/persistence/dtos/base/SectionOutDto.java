@@ -10,6 +10,9 @@ public class SectionOutDto {
     private Long parentId;
     private String category;
 
+    public SectionOutDto() {
+    }
+
     public SectionOutDto(Long id, Author author, String title, String parentTitle, Long parentId, String category) {
         this.id = id;
         this.author = author;
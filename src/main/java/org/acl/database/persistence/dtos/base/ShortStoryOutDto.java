@@ -9,6 +9,9 @@ public class ShortStoryOutDto {
     private String sourceTitle;
     private String category;
 
+    public ShortStoryOutDto() {
+    }
+
     public ShortStoryOutDto(Long id, Author author, String title, String sourceTitle, String category) {
         this.id = id;
         this.author = author;
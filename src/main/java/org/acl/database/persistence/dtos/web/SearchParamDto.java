@@ -11,6 +11,9 @@ public class SearchParamDto {
     private String fieldName;
     private String joinType;
     private String searchString;
+    private String queryType;
+    private Integer rangeFrom;
+    private Integer rangeTo;
 
     @ApiModelProperty(required = true)
     public String getFieldName() {
@@ -39,12 +42,44 @@ public class SearchParamDto {
         this.searchString = searchString;
     }
 
+    @ApiModelProperty(notes = "How searchString is matched: FUZZY (within EDIT_DISTANCE edits), PREFIX, WILDCARD " +
+            "(* and ?), or analyzed terms and phrases if not set.")
+    public String getQueryType() {
+        return queryType;
+    }
+
+    public void setQueryType(String queryType) {
+        this.queryType = queryType;
+    }
+
+    @ApiModelProperty(notes = "Lower bound (inclusive) of a range clause on a numeric field (i.e. publicationYear.) " +
+            "A clause with either bound set is a range clause; searchString is ignored.")
+    public Integer getRangeFrom() {
+        return rangeFrom;
+    }
+
+    public void setRangeFrom(Integer rangeFrom) {
+        this.rangeFrom = rangeFrom;
+    }
+
+    @ApiModelProperty(notes = "Upper bound (inclusive) of a range clause on a numeric field.")
+    public Integer getRangeTo() {
+        return rangeTo;
+    }
+
+    public void setRangeTo(Integer rangeTo) {
+        this.rangeTo = rangeTo;
+    }
+
     @Override
     public String toString() {
         return "SearchParam{" +
                 "fieldName='" + fieldName + '\'' +
                 ", joinType='" + joinType + '\'' +
                 ", searchString='" + searchString + '\'' +
+                ", queryType='" + queryType + '\'' +
+                ", rangeFrom=" + rangeFrom +
+                ", rangeTo=" + rangeTo +
                 '}';
     }
 }
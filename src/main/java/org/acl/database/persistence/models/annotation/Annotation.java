@@ -1,5 +1,6 @@
 package org.acl.database.persistence.models.annotation;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import org.acl.database.persistence.models.base.Auditable;
 
 import javax.persistence.*;
@@ -13,6 +14,7 @@ import java.util.Objects;
  * @author Josh Harkema
  */
 @Entity
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Annotation extends Auditable<String> implements Serializable {
     private static final long serialVersionUID = -7131872492811694640L;
     @Id
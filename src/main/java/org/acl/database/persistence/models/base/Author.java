@@ -1,5 +1,6 @@
 package org.acl.database.persistence.models.base;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.google.gson.annotations.Expose;
 
 import javax.persistence.*;
@@ -12,6 +13,7 @@ import java.util.Objects;
  * @author Josh Harkema
  */
 @Entity
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Table
 public class Author extends Auditable<String> implements Serializable {
     private static final long serialVersionUID = -590157884690722884L;
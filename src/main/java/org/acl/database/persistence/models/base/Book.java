@@ -14,13 +14,31 @@ import java.util.Objects;
  *
  * @author Josh Harkema
  */
+@NamedEntityGraph(
+        name = Book.SUMMARY_GRAPH,
+        attributeNodes = @NamedAttributeNode("author")
+)
+@NamedEntityGraph(
+        name = Book.FULL_GRAPH,
+        attributeNodes = {
+                @NamedAttributeNode("author"),
+                @NamedAttributeNode(value = "sections", subgraph = "sections")
+        },
+        subgraphs = @NamedSubgraph(name = "sections", attributeNodes = {
+                @NamedAttributeNode("author"),
+                @NamedAttributeNode("annotation"),
+                @NamedAttributeNode("narrator")
+        })
+)
 @Entity
 @DiscriminatorValue(TypeConstants.BOOK)
 public class Book extends Item implements Serializable {
     private static final long serialVersionUID = -5579725087589223758L;
+    public static final String SUMMARY_GRAPH = "Book.summary"; // The book and its author.
+    public static final String FULL_GRAPH = "Book.full"; // The book and every section, as serialized.
     @Column
     private String type;
-    @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.EAGER, orphanRemoval = true)
+    @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY, orphanRemoval = true)
     private List<Section> sections;
     @ManyToMany(cascade = {CascadeType.PERSIST}, fetch = FetchType.LAZY)
     @JoinTable(name = "book_characters", joinColumns = {
@@ -1,5 +1,6 @@
 package org.acl.database.persistence.models.base;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import org.acl.database.persistence.models.annotation.Dialog;
 import org.hibernate.annotations.Fetch;
 import org.hibernate.annotations.FetchMode;
@@ -15,6 +16,7 @@ import java.util.Set;
  * @author Josh Harkema
  */
 @Entity
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class BookCharacter extends Auditable<String> implements Serializable {
     private static final long serialVersionUID = -2343275086044899594L;
     @Id
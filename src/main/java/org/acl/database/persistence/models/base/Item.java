@@ -18,7 +18,7 @@ public abstract class Item extends Auditable<String> implements Serializable {
     private Long id;
     @Column
     private String category;
-    @ManyToOne(cascade = CascadeType.PERSIST, fetch = FetchType.EAGER)
+    @ManyToOne(cascade = CascadeType.PERSIST, fetch = FetchType.LAZY) // Fetched by the repositories' entity graphs.
     private Author author;
     @Column
     private String title;
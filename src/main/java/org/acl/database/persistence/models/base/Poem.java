@@ -36,7 +36,8 @@ public class Poem extends Item implements Serializable {
     private String form; // The form of genre of the poem.
     @Embedded
     private Confirmation confirmation;
-    @ElementCollection(fetch = FetchType.EAGER)
+    @Convert(converter = PoemTextConverter.class)
+    @Column(columnDefinition = "TEXT") // Lines were a poem_text element collection, see PoemTextMigration.
     private List<String> text;
     @OneToOne(cascade = CascadeType.REMOVE, fetch = FetchType.LAZY)
     @JoinColumn(name = "annotation_id")
@@ -0,0 +1,72 @@
+package org.acl.database.persistence.models.base;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stores a poem's lines in a single TEXT column, separated by line breaks. Backslashes and line breaks inside a line
+ * are escaped, so every list of lines decodes to itself (an empty list and a single empty line both encode to "" and
+ * decode to an empty list.)
+ *
+ * @author Josh Harkema
+ */
+@Converter
+public class PoemTextConverter implements AttributeConverter<List<String>, String> {
+    private static final char DELIMITER = '\n';
+    private static final char ESCAPE = '\\';
+
+    @Override
+    public String convertToDatabaseColumn(List<String> lines) {
+        if (lines == null) {
+            return null;
+        }
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < lines.size(); i++) {
+            if (i > 0) {
+                builder.append(DELIMITER);
+            }
+            String line = lines.get(i);
+            for (int j = 0; line != null && j < line.length(); j++) {
+                char c = line.charAt(j);
+                if (c == ESCAPE) {
+                    builder.append(ESCAPE).append(ESCAPE);
+                } else if (c == DELIMITER) {
+                    builder.append(ESCAPE).append('n');
+                } else if (c == '\r') {
+                    builder.append(ESCAPE).append('r');
+                } else {
+                    builder.append(c);
+                }
+            }
+        }
+        return builder.toString();
+    }
+
+    @Override
+    public List<String> convertToEntityAttribute(String column) {
+        if (column == null) {
+            return null;
+        }
+        List<String> lines = new ArrayList<>();
+        if (column.isEmpty()) {
+            return lines;
+        }
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < column.length(); i++) {
+            char c = column.charAt(i);
+            if (c == DELIMITER) {
+                lines.add(line.toString());
+                line.setLength(0);
+            } else if (c == ESCAPE && i + 1 < column.length()) {
+                char next = column.charAt(++i);
+                line.append(next == 'n' ? DELIMITER : next == 'r' ? '\r' : next);
+            } else {
+                line.append(c);
+            }
+        }
+        lines.add(line.toString());
+        return lines;
+    }
+}
@@ -15,15 +15,24 @@ import java.util.Objects;
  *
  * @author Josh Harkema
  */
+@NamedEntityGraph(
+        name = Section.FULL_GRAPH,
+        attributeNodes = {
+                @NamedAttributeNode("author"),
+                @NamedAttributeNode("annotation"),
+                @NamedAttributeNode("narrator")
+        }
+)
 @Entity
 @DiscriminatorValue(TypeConstants.SECTION)
 public class Section extends Item implements Serializable {
     private static final long serialVersionUID = -7556341244036061332L;
+    public static final String FULL_GRAPH = "Section.full"; // The section and everything it serializes.
     @Embedded
     private Confirmation confirmation;
     @Column(columnDefinition = "TEXT")
     private String text;
-    @OneToOne(cascade = CascadeType.REMOVE, fetch = FetchType.EAGER)
+    @OneToOne(cascade = CascadeType.REMOVE, fetch = FetchType.LAZY)
     @JoinColumn(name = "annotation_id")
     private Annotation annotation;
     @OneToMany(cascade = CascadeType.REMOVE, fetch = FetchType.LAZY)
@@ -38,7 +47,7 @@ public class Section extends Item implements Serializable {
     @Embedded
     @JsonIgnore
     private TopicModel topicModel;
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     private BookCharacter narrator;
 
     public Section() {
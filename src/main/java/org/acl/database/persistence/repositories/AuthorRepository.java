@@ -1,9 +1,12 @@
 package org.acl.database.persistence.repositories;
 
+import org.acl.database.persistence.dtos.base.IndexVersionDto;
 import org.acl.database.persistence.models.base.Author;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -11,6 +14,12 @@ import java.util.Optional;
  */
 @Repository
 public interface AuthorRepository extends JpaRepository<Author, Long> {
+    @Query(value = "SELECT new org.acl.database.persistence.dtos.base.IndexVersionDto(" +
+            "a.id, " +
+            "a.lastModifiedDate) " +
+            "FROM Author a")
+    List<IndexVersionDto> getIndexVersions();
+
     Optional<Author> findByLastName(final String lastName);
 
     Author findByLastNameAndFirstName(final String lastName, final String firstName);
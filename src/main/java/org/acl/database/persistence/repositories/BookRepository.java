@@ -4,10 +4,13 @@ import org.acl.database.persistence.dtos.base.BookOutDto;
 import org.acl.database.persistence.models.base.Book;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -38,11 +41,43 @@ public interface BookRepository extends JpaRepository<Book, Long> {
             "FROM Book b")
     List<BookOutDto> getAll();
 
+    @Query(value = "SELECT new org.acl.database.persistence.dtos.base.BookOutDto(" +
+            "b.id, " +
+            "b.author, " +
+            "b.title, " +
+            "b.type, " +
+            "b.dateOfPublication, " +
+            "b.category) " +
+            "FROM Book b " +
+            "WHERE b.id = :id")
+    Optional<BookOutDto> getSummary(@Param("id") final Long id);
+
+    /**
+     * @param id the db id of the book.
+     * @return the book with its author and every section (and everything the sections serialize.)
+     */
+    @EntityGraph(Book.FULL_GRAPH)
+    Optional<Book> findWithSectionsById(final Long id);
+
+    /**
+     * @param ids the db ids of the books.
+     * @return the books, in no particular order, loaded as findWithSectionsById loads them.
+     */
+    @EntityGraph(Book.FULL_GRAPH)
+    @Query(value = "SELECT DISTINCT b FROM Book b WHERE b.id IN :ids")
+    List<Book> getAllByIds(@Param("ids") final Collection<Long> ids);
+
     Optional<Book> findByAuthor_IdAndTitle(final long id, final String title);
 
+    // Only the author is fetched; sections load lazily (in batches) if the book is serialized.
+    @EntityGraph(Book.SUMMARY_GRAPH)
     Optional<Book> findByTitle(final String title);
 
+    // Fetching every section of every book here would load all of a user's books' text in one join.
+    @EntityGraph(Book.SUMMARY_GRAPH)
     Optional<List<Book>> findAllByCreatedBy(final String createdBy);
 
+    // Fetching the sections here would page in memory; they are loaded per book when serialized.
+    @EntityGraph(Book.SUMMARY_GRAPH)
     Optional<Page<Book>> findAllByIsPublicDomain(final Boolean isPublicDomain, final Pageable pageable);
 }
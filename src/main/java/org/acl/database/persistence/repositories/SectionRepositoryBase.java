@@ -1,11 +1,17 @@
 package org.acl.database.persistence.repositories;
 
+import org.acl.database.persistence.dtos.base.IndexVersionDto;
 import org.acl.database.persistence.dtos.base.SectionOutDto;
 import org.acl.database.persistence.models.base.Section;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -36,9 +42,42 @@ public interface SectionRepositoryBase extends JpaRepository<Section, Long> {
             "FROM Section s")
     List<SectionOutDto> getAll();
 
+    @Query(value = "SELECT new org.acl.database.persistence.dtos.base.IndexVersionDto(" +
+            "s.id, " +
+            "s.lastModifiedDate) " +
+            "FROM Section s")
+    List<IndexVersionDto> getIndexVersions();
+
+    /**
+     * @param bookId the db id of a book.
+     * @return the titles (and authors) of the book's sections, in the order they were added; no text is loaded.
+     */
+    @Query(value = "SELECT new org.acl.database.persistence.dtos.base.SectionOutDto(" +
+            "s.id, " +
+            "s.author, " +
+            "s.title, " +
+            "s.parentTitle, " +
+            "s.parentId, " +
+            "s.category) " +
+            "FROM Section s " +
+            "WHERE s.parentId = :bookId " +
+            "ORDER BY s.id")
+    List<SectionOutDto> getTitlesByBook(@Param("bookId") final Long bookId);
+
+    @EntityGraph(attributePaths = "author")
+    @QueryHints(value = @QueryHint(name = "org.hibernate.readOnly", value = "true"))
+    List<Section> findAllByIdIn(final Collection<Long> ids);
+
+    @EntityGraph(Section.FULL_GRAPH)
+    @Query(value = "SELECT s FROM Section s WHERE s.id IN :ids")
+    List<Section> getAllByIds(@Param("ids") final Collection<Long> ids);
+
+    @EntityGraph(Section.FULL_GRAPH)
     Optional<List<Section>> findAllByAuthor_LastName(final String lastName);
 
+    @EntityGraph(Section.FULL_GRAPH)
     Optional<Section> findById(final Long id);
 
+    @EntityGraph(Section.FULL_GRAPH)
     Optional<List<Section>> findAllByCreatedBy(final String username);
 }
@@ -1,10 +1,16 @@
 package org.acl.database.persistence.repositories;
 
+import org.acl.database.persistence.dtos.base.IndexVersionDto;
 import org.acl.database.persistence.dtos.base.ShortStoryOutDto;
 import org.acl.database.persistence.models.base.ShortStory;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -32,9 +38,26 @@ public interface ShortStoryRepository extends JpaRepository<ShortStory, Long> {
             "FROM ShortStory s")
     List<ShortStoryOutDto> getAll();
 
+    @Query(value = "SELECT new org.acl.database.persistence.dtos.base.IndexVersionDto(" +
+            "s.id, " +
+            "s.lastModifiedDate) " +
+            "FROM ShortStory s")
+    List<IndexVersionDto> getIndexVersions();
+
+    @EntityGraph(attributePaths = "author")
+    @QueryHints(value = @QueryHint(name = "org.hibernate.readOnly", value = "true"))
+    List<ShortStory> findAllByIdIn(final Collection<Long> ids);
+
+    @EntityGraph(attributePaths = {"author", "annotation"})
+    @Query(value = "SELECT s FROM ShortStory s WHERE s.id IN :ids")
+    List<ShortStory> getAllByIds(@Param("ids") final Collection<Long> ids);
+
+    @EntityGraph(attributePaths = "author")
     Optional<ShortStory> findById(final Long id);
 
+    @EntityGraph(attributePaths = "author")
     Optional<List<ShortStory>> findAllByIsPublicDomain(final Boolean isPublicDomain);
 
+    @EntityGraph(attributePaths = "author")
     Optional<List<ShortStory>> findAllByCreatedBy(final String username);
 }
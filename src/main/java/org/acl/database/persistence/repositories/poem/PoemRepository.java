@@ -1,13 +1,19 @@
 package org.acl.database.persistence.repositories.poem;
 
+import org.acl.database.persistence.dtos.base.IndexVersionDto;
 import org.acl.database.persistence.dtos.base.PoemOutDto;
 import org.acl.database.persistence.models.base.Poem;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -40,16 +46,40 @@ public interface PoemRepository extends JpaRepository<Poem, Long>, PoemRepositor
             "FROM Poem p")
     List<PoemOutDto> getAll();
 
+    @Query(value = "SELECT new org.acl.database.persistence.dtos.base.IndexVersionDto(" +
+            "p.id, " +
+            "p.lastModifiedDate) " +
+            "FROM Poem p " +
+            "WHERE p.hidden = FALSE")
+    List<IndexVersionDto> getIndexVersions();
+
+    @EntityGraph(attributePaths = {"author", "annotation"})
+    Optional<Poem> findById(final Long id);
+
+    @EntityGraph(attributePaths = "author")
+    @QueryHints(value = @QueryHint(name = "org.hibernate.readOnly", value = "true"))
+    List<Poem> findAllByIdIn(final Collection<Long> ids);
+
+    @EntityGraph(attributePaths = {"author", "annotation"})
+    @Query(value = "SELECT p FROM Poem p WHERE p.id IN :ids")
+    List<Poem> getAllByIds(@Param("ids") final Collection<Long> ids);
+
+    @EntityGraph(attributePaths = "author")
     Optional<List<Poem>> findAllByForm(final String form);
 
+    @EntityGraph(attributePaths = "author")
     Optional<List<Poem>> findAllByHidden(final boolean hidden);
 
+    @EntityGraph(attributePaths = "author")
     Optional<Page<Poem>> findAllByForm(final String form, final Pageable pageable);
 
+    @EntityGraph(attributePaths = "author")
     Optional<List<Poem>> findAllByCreatedBy(final String createdBy);
 
+    @EntityGraph(attributePaths = "author")
     Optional<List<Poem>> findAllByAuthor_LastName(final String lastName);
 
+    @EntityGraph(attributePaths = "author")
     Optional<Page<Poem>> findAllByIsPublicDomain(final Boolean isPublicDomain, Pageable pageable);
 
     Long countAllByCreatedByAndConfirmation_PendingRevision(final String createdBy, final Boolean pendingRevision);
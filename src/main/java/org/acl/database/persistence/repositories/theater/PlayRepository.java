@@ -1,10 +1,29 @@
 package org.acl.database.persistence.repositories.theater;
 
+import org.acl.database.persistence.dtos.base.IndexVersionDto;
 import org.acl.database.persistence.models.theater.Play;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface PlayRepository extends JpaRepository<Play, Long> {
+    @Query(value = "SELECT new org.acl.database.persistence.dtos.base.IndexVersionDto(" +
+            "p.id, " +
+            "p.lastModifiedDate) " +
+            "FROM Play p")
+    List<IndexVersionDto> getIndexVersions();
+
+    @EntityGraph(attributePaths = "author")
+    Optional<Play> findById(final Long id);
+
+    @EntityGraph(attributePaths = "author")
+    List<Play> findAllByIdIn(final Collection<Long> ids);
+
     boolean existsByAuthor_LastNameAndTitle(final String lastName, final String title);
 }
@@ -1,7 +1,13 @@
 package org.acl.database.services.base;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import org.acl.database.persistence.dtos.base.BookDto;
 import org.acl.database.persistence.dtos.base.BookOutDto;
+import org.acl.database.persistence.dtos.base.ImportResultDto;
+import org.acl.database.persistence.dtos.base.SectionDto;
+import org.acl.database.persistence.dtos.base.SectionOutDto;
 import org.acl.database.persistence.models.TypeConstants;
 import org.acl.database.persistence.models.base.Author;
 import org.acl.database.persistence.models.base.Book;
@@ -9,12 +15,20 @@ import org.acl.database.persistence.models.base.Section;
 import org.acl.database.persistence.repositories.AuthorRepository;
 import org.acl.database.persistence.repositories.BookRepository;
 import org.acl.database.persistence.repositories.SectionRepositoryBase;
+import org.acl.database.search.IndexWriterRegistry;
+import org.acl.database.search.SearchRepository;
+import org.acl.database.search.SearcherRegistry;
 import org.acl.database.security.UserDetailsServiceImpl;
 import org.acl.database.services.AbstractItemService;
 import org.acl.database.services.exceptions.ItemNotFoundException;
+import org.acl.database.tools.AfterCommit;
 import org.acl.database.tools.ParseSourceDetails;
+import org.acl.database.tools.RequestOrder;
+import org.apache.commons.lang.StringUtils;
 import org.apache.log4j.Logger;
+import org.apache.lucene.document.Document;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
@@ -22,6 +36,12 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.EntityManager;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.security.Principal;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -40,14 +60,24 @@ public class BookService implements AbstractItemService<Book, BookDto, BookOutDt
     private final SectionRepositoryBase sectionRepositoryBase;
     private final AuthorRepository authorRepository;
     private final UserDetailsServiceImpl userDetailsService;
+    private final EntityManager entityManager;
+    private final ObjectReader bookReader;
+    private final ObjectReader sectionReader;
+    private final int batchSize;
 
     @Autowired
     public BookService(BookRepository bookRepository, SectionRepositoryBase sectionRepositoryBase,
-                       AuthorRepository authorRepository, UserDetailsServiceImpl userDetailsService) {
+                       AuthorRepository authorRepository, UserDetailsServiceImpl userDetailsService,
+                       EntityManager entityManager, ObjectMapper objectMapper,
+                       @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int batchSize) {
         this.bookRepository = bookRepository;
         this.sectionRepositoryBase = sectionRepositoryBase;
         this.authorRepository = authorRepository;
         this.userDetailsService = userDetailsService;
+        this.entityManager = entityManager;
+        this.bookReader = objectMapper.readerFor(BookDto.class);
+        this.sectionReader = objectMapper.readerFor(SectionDto.class);
+        this.batchSize = batchSize;
     }
 
     /**
@@ -89,6 +119,101 @@ public class BookService implements AbstractItemService<Book, BookDto, BookOutDt
         }
     }
 
+    /**
+     * Adds a whole book from newline delimited JSON: the first line is the BookDto, every following line is a
+     * SectionDto (title, description and text; the book and author come from the first line), in reading order.
+     * Sections are read one at a time, flushed and detached every batchSize sections, so the persistence context
+     * stays small and earlier chapters are never reloaded. Only their ids are kept: the book's sections collection is
+     * filled with references once at the end, so Hibernate rewrites the (unordered bag) join table once rather than
+     * once per batch. Search documents are added after the transaction commits, so a failed import leaves none
+     * behind; until then they (about the size of the book's text) are held in memory. Sections without text, or that
+     * cannot be parsed, are reported and skipped.
+     *
+     * @param ndjson the book, UTF-8 encoded.
+     * @return 201 with the number of sections added and per-line errors, 400 if the first line is not a valid book,
+     * or 409 if the author already has a book with that title.
+     * @throws IOException if the stream cannot be read.
+     */
+    @Transactional
+    public ResponseEntity<ImportResultDto> importBook(final InputStream ndjson) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(ndjson, StandardCharsets.UTF_8));
+        String line = reader.readLine();
+        int lineNumber = 1;
+        while (line != null && line.trim().isEmpty()) {
+            line = reader.readLine();
+            lineNumber++;
+        }
+        BookDto dto;
+        try {
+            dto = line == null ? null : bookReader.readValue(line);
+        } catch (JsonProcessingException e) {
+            dto = null;
+        }
+        if (dto == null || dto.getAuthorId() == null || StringUtils.isBlank(dto.getTitle())) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        LOGGER.debug("Importing book: " + dto.toString());
+        Author author = authorRepository.findById(dto.getAuthorId()).orElseThrow(ItemNotFoundException::new);
+        if (bookRepository.findByAuthor_IdAndTitle(dto.getAuthorId(), dto.getTitle()).isPresent()) {
+            return new ResponseEntity<>(HttpStatus.CONFLICT);
+        }
+        Book book = bookRepository.saveAndFlush(createOrUpdateFromDto(new Book(), author, dto));
+
+        ImportResultDto result = new ImportResultDto();
+        List<Section> sections = new ArrayList<>();
+        List<Long> sectionIds = new ArrayList<>();
+        List<Document> documents = new ArrayList<>();
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+            SectionDto sectionDto;
+            try {
+                sectionDto = sectionReader.readValue(line);
+            } catch (JsonProcessingException e) {
+                result.addError(lineNumber, "invalid JSON: " + e.getOriginalMessage());
+                continue;
+            }
+            if (StringUtils.isBlank(sectionDto.getText())) {
+                result.addError(lineNumber, "text is required");
+                continue;
+            }
+            sectionDto.setBookId(book.getId());
+            sectionDto.setAuthorId(author.getId());
+            Section section = sectionRepositoryBase.save(
+                    SectionService.createOrCopySection(new Section(), author, book, sectionDto));
+            sections.add(section);
+            sectionIds.add(section.getId());
+            documents.add(SearchRepository.sectionDocument(section));
+            result.incrementAdded();
+            if (sections.size() == batchSize) {
+                flushSections(sections);
+            }
+        }
+        flushSections(sections);
+        sectionIds.forEach(id -> book.getSections().add(entityManager.getReference(Section.class, id)));
+        bookRepository.saveAndFlush(book);
+        AfterCommit.run(() -> {
+            SearchRepository.appendDocuments(documents, TypeConstants.SECTION);
+            IndexWriterRegistry.commit(TypeConstants.SECTION);
+            SearcherRegistry.refresh(TypeConstants.SECTION);
+        });
+        LOGGER.debug("Book import complete: " + result.toString());
+        return new ResponseEntity<>(result, HttpStatus.CREATED);
+    }
+
+    /**
+     * Writes the pending sections, then detaches them (the book and author stay managed.)
+     *
+     * @param sections the pending sections; cleared.
+     */
+    private void flushSections(final List<Section> sections) {
+        entityManager.flush();
+        sections.forEach(entityManager::detach);
+        sections.clear();
+    }
+
     @Override
     @Transactional
     public ResponseEntity<Void> delete(Long id, Principal principal) {
@@ -105,19 +230,34 @@ public class BookService implements AbstractItemService<Book, BookDto, BookOutDt
     @Transactional(readOnly = true)
     public Book getById(Long id) {
         LOGGER.debug("Getting book: " + id);
-        return bookRepository.findById(id).orElseThrow(ItemNotFoundException::new);
+        return bookRepository.findWithSectionsById(id).orElseThrow(ItemNotFoundException::new);
+    }
+
+    /**
+     * @param id the db id of the book.
+     * @return the book's details without its sections.
+     */
+    @Transactional(readOnly = true)
+    public BookOutDto getSummary(Long id) {
+        LOGGER.debug("Getting book summary: " + id);
+        return bookRepository.getSummary(id).orElseThrow(ItemNotFoundException::new);
+    }
+
+    /**
+     * @param id the db id of the book.
+     * @return the titles of the book's sections, in order, without their text.
+     */
+    @Transactional(readOnly = true)
+    public List<SectionOutDto> getSectionTitles(Long id) {
+        LOGGER.debug("Getting book section titles: " + id);
+        return sectionRepositoryBase.getTitlesByBook(id);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<Book> getByIds(Long[] ids) {
         LOGGER.debug("Getting books by ids: " + Arrays.toString(ids));
-        List<Book> output = new ArrayList<>();
-        for (Long id : ids) {
-            Book book = bookRepository.findById(id).orElseThrow(ItemNotFoundException::new);
-            output.add(book);
-        }
-        return output;
+        return RequestOrder.load(ids, bookRepository::getAllByIds);
     }
 
     @Override
@@ -1,6 +1,9 @@
 package org.acl.database.services.base;
 
-import org.acl.database.config.LuceneConfig;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.acl.database.persistence.dtos.base.ImportResultDto;
 import org.acl.database.persistence.dtos.base.PoemDto;
 import org.acl.database.persistence.dtos.base.PoemOutDto;
 import org.acl.database.persistence.models.TypeConstants;
@@ -11,19 +14,23 @@ import org.acl.database.persistence.models.web.User;
 import org.acl.database.persistence.repositories.AuthorRepository;
 import org.acl.database.persistence.repositories.UserRepository;
 import org.acl.database.persistence.repositories.poem.PoemRepository;
+import org.acl.database.search.IndexWriterRegistry;
+import org.acl.database.search.PoemDuplicates;
 import org.acl.database.search.SearchRepository;
+import org.acl.database.search.SearcherRegistry;
 import org.acl.database.services.AbstractItemService;
 import org.acl.database.services.exceptions.ItemNotFoundException;
 import org.acl.database.services.exceptions.StoredProcedureQueryException;
 import org.acl.database.services.search.SearchConstants;
 import org.acl.database.services.search.SearchQueryHandlerService;
+import org.acl.database.tools.AfterCommit;
 import org.acl.database.tools.ParseSourceDetails;
+import org.acl.database.tools.RequestOrder;
 import org.apache.commons.lang.StringUtils;
 import org.apache.log4j.Logger;
 import org.apache.lucene.document.Document;
-import org.apache.lucene.document.Field;
-import org.apache.lucene.document.TextField;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
@@ -31,10 +38,18 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.EntityManager;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.security.Principal;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 
@@ -50,13 +65,20 @@ public class PoemService implements AbstractItemService<Poem, PoemDto, PoemOutDt
     private final PoemRepository poemRepository;
     private final AuthorRepository authorRepository;
     private final UserRepository userRepository;
+    private final EntityManager entityManager;
+    private final ObjectReader poemReader;
+    private final int batchSize;
 
     @Autowired
     public PoemService(PoemRepository poemRepository, AuthorRepository authorRepository,
-                       UserRepository userRepository) {
+                       UserRepository userRepository, EntityManager entityManager, ObjectMapper objectMapper,
+                       @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int batchSize) {
         this.poemRepository = poemRepository;
         this.authorRepository = authorRepository;
         this.userRepository = userRepository;
+        this.entityManager = entityManager;
+        this.poemReader = objectMapper.readerFor(PoemDto.class);
+        this.batchSize = batchSize;
     }
 
     /**
@@ -86,7 +108,7 @@ public class PoemService implements AbstractItemService<Poem, PoemDto, PoemOutDt
             poem.setPeriod(dto.getPeriod());
             poem.setForm(dto.getForm());
             poem.setConfirmation(new Confirmation());
-            if (dto.getTitle().isEmpty() || dto.getTitle() == null) {
+            if (dto.getTitle() == null || dto.getTitle().isEmpty()) {
                 poem.setTitle(poem.getText().get(0));
             } else {
                 poem.setTitle(dto.getTitle());
@@ -112,13 +134,8 @@ public class PoemService implements AbstractItemService<Poem, PoemDto, PoemOutDt
     // :todo: add this method to AbstractItemService
     private static void addNewSearchDocument(final Poem poem) {
         LOGGER.debug("Updating poem's search document...");
-        Document document = SearchRepository.parseCommonFields(new Document(), poem);
-        document.add(new TextField(SearchConstants.POEM_FORM, poem.getForm(), Field.Store.YES));
-        // :todo: this requires its own custom field.
-        document.add(new TextField(SearchConstants.TOPIC_MODEL, String.valueOf(poem.getTopicModel()),
-                Field.Store.YES));
-        document.add(LuceneConfig.getTextField(String.join(" ", poem.getText())));
-        SearchRepository.addDocument(document, TypeConstants.POEM);
+        SearchRepository.addDocument(SearchRepository.poemDocument(poem), TypeConstants.POEM);
+        PoemDuplicates.put(poem.getId().toString(), poem.getTitle(), poem.getAuthor().getLastName());
         LOGGER.debug("Poem's search document updated successfully.");
     }
 
@@ -137,6 +154,101 @@ public class PoemService implements AbstractItemService<Poem, PoemDto, PoemOutDt
         }
     }
 
+    /**
+     * Adds poems from newline delimited JSON, one PoemDto per line (blank lines are skipped.) Each author is loaded
+     * once per import. Poems use IDENTITY keys, so Hibernate inserts each one as it is saved and cannot batch the
+     * inserts; the new poems are flushed and detached every batchSize poems so the persistence context stays small.
+     * Search documents and duplicate titles are only added after the transaction commits, so a failed import leaves
+     * neither behind; until then the documents (about the size of the imported text) are held in memory. Poems
+     * without a title are titled with their first line, as add() does. Lines that cannot be parsed, are missing
+     * required fields, or reference an unknown author are reported; duplicates (of existing poems or earlier lines)
+     * are counted and skipped.
+     *
+     * @param ndjson the poems, UTF-8 encoded.
+     * @return the number of poems added, duplicates skipped, and per-line errors.
+     * @throws IOException if the stream cannot be read.
+     */
+    @Transactional
+    public ImportResultDto bulkAdd(final InputStream ndjson) throws IOException {
+        LOGGER.debug("Bulk adding poems...");
+        ImportResultDto result = new ImportResultDto();
+        Map<Long, Author> authors = new HashMap<>();
+        Map<Long, List<String>> titles = new HashMap<>(); // Titles added by this import, by author id.
+        List<Poem> poems = new ArrayList<>();
+        List<Document> documents = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(ndjson, StandardCharsets.UTF_8));
+        int lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+            PoemDto dto;
+            try {
+                dto = poemReader.readValue(line);
+            } catch (JsonProcessingException e) {
+                result.addError(lineNumber, "invalid JSON: " + e.getOriginalMessage());
+                continue;
+            }
+            if (dto.getAuthorId() == null || StringUtils.isBlank(dto.getText())) {
+                result.addError(lineNumber, "authorId and text are required");
+                continue;
+            }
+            Author author = authors.computeIfAbsent(dto.getAuthorId(),
+                    id -> authorRepository.findById(id).orElse(null));
+            if (author == null) {
+                result.addError(lineNumber, "no author with id " + dto.getAuthorId());
+                continue;
+            }
+            List<String> authorTitles = titles.computeIfAbsent(author.getId(), id -> new ArrayList<>());
+            if (!SearchQueryHandlerService.similarPoemExists(dto.getTitle(), author.getLastName()) ||
+                    authorTitles.stream().anyMatch(title -> PoemDuplicates.similarTitles(dto.getTitle(), title))) {
+                result.incrementDuplicates();
+                continue;
+            }
+
+            Poem poem = poemRepository.save(createOrUpdateFromDto(new Poem(), dto, author));
+            poems.add(poem);
+            documents.add(SearchRepository.poemDocument(poem));
+            authorTitles.add(poem.getTitle());
+            result.incrementAdded();
+            if (poems.size() == batchSize) {
+                flushBatch(poems);
+            }
+        }
+        flushBatch(poems);
+        AfterCommit.run(() -> indexPoems(documents));
+        LOGGER.debug("Bulk add complete: " + result.toString());
+        return result;
+    }
+
+    /**
+     * Writes the pending poems, then detaches them (their authors stay managed, so they can be reused by the rest of
+     * the import.)
+     *
+     * @param poems the pending poems; cleared.
+     */
+    private void flushBatch(final List<Poem> poems) {
+        entityManager.flush();
+        poems.forEach(entityManager::detach);
+        poems.clear();
+    }
+
+    /**
+     * Adds the search documents of committed poems to the poem index and to PoemDuplicates.
+     *
+     * @param documents the search documents.
+     */
+    private static void indexPoems(final List<Document> documents) {
+        SearchRepository.appendDocuments(documents, TypeConstants.POEM);
+        IndexWriterRegistry.commit(TypeConstants.POEM);
+        SearcherRegistry.refresh(TypeConstants.POEM);
+        documents.forEach(document -> PoemDuplicates.put(document.get(SearchConstants.ID),
+                document.get(SearchConstants.TITLE), document.get(SearchConstants.AUTHOR_LAST_NAME)));
+        LOGGER.debug(String.format("[SEARCH] :::::: Indexed %d imported poems.", documents.size()));
+    }
+
     @Override
     @Transactional
     public ResponseEntity<Void> delete(Long id, Principal principal) {
@@ -150,6 +262,7 @@ public class PoemService implements AbstractItemService<Poem, PoemDto, PoemOutDt
                 userRepository.findByUsername(principal.getName()).getAdmin()) {
             poemRepository.delete(poem);
             SearchRepository.deleteDocument(id.toString(), TypeConstants.POEM);
+            PoemDuplicates.remove(id.toString());
             return new ResponseEntity<>(HttpStatus.NO_CONTENT);
         }
 
@@ -167,14 +280,7 @@ public class PoemService implements AbstractItemService<Poem, PoemDto, PoemOutDt
     @Transactional(readOnly = true)
     public List<Poem> getByIds(Long[] ids) {
         LOGGER.debug("Getting poems with ids: " + Arrays.toString(ids));
-        List<Poem> poems = new ArrayList<>();
-        for (Long l : ids) {
-            Poem poem = this.getById(l);
-            if (poem != null) {
-                poems.add(poem);
-            }
-        }
-        return poems;
+        return RequestOrder.load(ids, poemRepository::getAllByIds);
     }
 
     @Override
@@ -218,6 +324,7 @@ public class PoemService implements AbstractItemService<Poem, PoemDto, PoemOutDt
             poem = createOrUpdateFromDto(poem, dto, author);
             this.updateCanConfirm(poem);
             SearchRepository.updatePoem(poemRepository.saveAndFlush(poem));
+            PoemDuplicates.put(poem.getId().toString(), poem.getTitle(), poem.getAuthor().getLastName());
             return new ResponseEntity<>(HttpStatus.NO_CONTENT);
         }
 
@@ -1,6 +1,5 @@
 package org.acl.database.services.base;
 
-import org.acl.database.config.LuceneConfig;
 import org.acl.database.persistence.dtos.annotation.AnnotationDto;
 import org.acl.database.persistence.dtos.base.SectionDto;
 import org.acl.database.persistence.dtos.base.SectionOutDto;
@@ -19,13 +18,9 @@ import org.acl.database.services.AbstractItemService;
 import org.acl.database.services.exceptions.AnnotationTypeMismatchException;
 import org.acl.database.services.exceptions.ItemAlreadyConfirmedException;
 import org.acl.database.services.exceptions.ItemNotFoundException;
-import org.acl.database.services.search.SearchConstants;
 import org.acl.database.tools.ParseSourceDetails;
+import org.acl.database.tools.RequestOrder;
 import org.apache.log4j.Logger;
-import org.apache.lucene.document.Document;
-import org.apache.lucene.document.Field;
-import org.apache.lucene.document.StringField;
-import org.apache.lucene.document.TextField;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -35,7 +30,6 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.security.Principal;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -74,7 +68,7 @@ public class SectionService implements AbstractItemService<Section, SectionDto,
      * @param dto     the dto with the new data.
      * @return the Section with the new data copied.
      */
-    private static Section createOrCopySection(Section section, Author author, Book book, SectionDto dto) {
+    static Section createOrCopySection(Section section, Author author, Book book, SectionDto dto) {
         section.setCategory(TypeConstants.SECTION);
         section.setAuthor(author);
         section.setTitle(dto.getTitle());
@@ -101,11 +95,7 @@ public class SectionService implements AbstractItemService<Section, SectionDto,
 
     private static void addNewSearchDocument(final Section section) {
         LOGGER.debug("Updating section's com.sonnets.sonnet.search document...");
-        Document document = SearchRepository.parseCommonFields(new Document(), section);
-        document.add(new StringField(SearchConstants.PARENT_ID, section.getParentId().toString(), Field.Store.YES));
-        document.add(new TextField(SearchConstants.PARENT_TITLE, section.getParentTitle(), Field.Store.YES));
-        document.add(LuceneConfig.getTextField(section.getText()));
-        SearchRepository.addDocument(document, TypeConstants.SECTION);
+        SearchRepository.addDocument(SearchRepository.sectionDocument(section), TypeConstants.SECTION);
     }
 
     @Override
@@ -149,10 +139,7 @@ public class SectionService implements AbstractItemService<Section, SectionDto,
     @Transactional(readOnly = true)
     public List<Section> getByIds(Long[] ids) {
         LOGGER.debug("Getting sections by ids: " + Arrays.toString(ids));
-        List<Section> results = new ArrayList<>();
-        for (Long l : ids)
-            results.add(sectionRepository.findById(l).orElseThrow(ItemNotFoundException::new));
-        return results;
+        return RequestOrder.load(ids, sectionRepository::getAllByIds);
     }
 
     @Override
@@ -213,7 +200,7 @@ public class SectionService implements AbstractItemService<Section, SectionDto,
     @Transactional(readOnly = true)
     public List<Section> getAllFromBook(Long bookId) {
         LOGGER.debug("Getting all sections of: " + bookId);
-        Book book = bookRepository.findById(bookId).orElseThrow(ItemNotFoundException::new);
+        Book book = bookRepository.findWithSectionsById(bookId).orElseThrow(ItemNotFoundException::new);
         return book.getSections();
     }
 
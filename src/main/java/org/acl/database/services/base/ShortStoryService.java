@@ -1,6 +1,5 @@
 package org.acl.database.services.base;
 
-import org.acl.database.config.LuceneConfig;
 import org.acl.database.persistence.dtos.base.ShortStoryDto;
 import org.acl.database.persistence.dtos.base.ShortStoryOutDto;
 import org.acl.database.persistence.models.TypeConstants;
@@ -13,8 +12,8 @@ import org.acl.database.security.UserDetailsServiceImpl;
 import org.acl.database.services.AbstractItemService;
 import org.acl.database.services.exceptions.ItemNotFoundException;
 import org.acl.database.tools.ParseSourceDetails;
+import org.acl.database.tools.RequestOrder;
 import org.apache.log4j.Logger;
-import org.apache.lucene.document.Document;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
@@ -23,7 +22,6 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.security.Principal;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -58,9 +56,7 @@ public class ShortStoryService implements AbstractItemService<ShortStory, ShortS
 
     private static void addNewSearchDocument(final ShortStory shortStory) {
         LOGGER.debug("Adding new ShortStory com.sonnets.sonnet.search document...");
-        Document document = SearchRepository.parseCommonFields(new Document(), shortStory);
-        document.add(LuceneConfig.getTextField(shortStory.getText()));
-        SearchRepository.addDocument(document, TypeConstants.SHORT_STORY);
+        SearchRepository.addDocument(SearchRepository.shortStoryDocument(shortStory), TypeConstants.SHORT_STORY);
     }
 
     @Override
@@ -96,13 +92,10 @@ public class ShortStoryService implements AbstractItemService<ShortStory, ShortS
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ShortStory> getByIds(Long[] ids) {
         LOGGER.debug("Returning short stories with ids: " + Arrays.toString(ids));
-        List<ShortStory> out = new ArrayList<>();
-        for (Long l : ids) {
-            out.add(shortStoryRepository.findById(l).orElseThrow(ItemNotFoundException::new));
-        }
-        return out;
+        return RequestOrder.load(ids, shortStoryRepository::getAllByIds);
     }
 
     @Override
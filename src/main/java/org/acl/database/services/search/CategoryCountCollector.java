@@ -0,0 +1,77 @@
+package org.acl.database.services.search;
+
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.search.ScoreMode;
+import org.apache.lucene.search.SimpleCollector;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Counts hits per category while a query runs over a MultiReader of the item type indexes. Every sub-reader holds a
+ * single category, so hits are attributed by which sub-reader a segment belongs to; no field values are read.
+ *
+ * @author Josh Harkema
+ */
+public class CategoryCountCollector extends SimpleCollector {
+    private final String[] categories;
+    private final int[] starts;
+    private final int[] counts;
+    private int current;
+
+    /**
+     * @param categories the category of each sub-reader.
+     * @param readers    the sub-readers, in the same order they were given to the MultiReader.
+     */
+    public CategoryCountCollector(final String[] categories, final IndexReader[] readers) {
+        this.categories = categories;
+        this.starts = new int[readers.length];
+        this.counts = new int[readers.length];
+        int maxDoc = 0;
+        for (int i = 0; i < readers.length; i++) {
+            starts[i] = maxDoc;
+            maxDoc += readers[i].maxDoc();
+        }
+    }
+
+    @Override
+    protected void doSetNextReader(LeafReaderContext context) {
+        current = 0;
+        while (current + 1 < starts.length && starts[current + 1] <= context.docBase) {
+            current++;
+        }
+    }
+
+    @Override
+    public void collect(int doc) {
+        counts[current]++;
+    }
+
+    @Override
+    public ScoreMode scoreMode() {
+        return ScoreMode.COMPLETE_NO_SCORES;
+    }
+
+    /**
+     * @return the number of hits in each category.
+     */
+    public Map<String, Integer> getCounts() {
+        Map<String, Integer> out = new LinkedHashMap<>();
+        for (int i = 0; i < categories.length; i++) {
+            out.merge(categories[i], counts[i], Integer::sum);
+        }
+        return out;
+    }
+
+    /**
+     * @return the total number of hits across every category.
+     */
+    public int getTotalHits() {
+        int total = 0;
+        for (int c : counts) {
+            total += c;
+        }
+        return total;
+    }
+}
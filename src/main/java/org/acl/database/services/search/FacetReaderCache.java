@@ -0,0 +1,122 @@
+package org.acl.database.services.search;
+
+import org.acl.database.search.SearcherRegistry;
+import org.apache.lucene.facet.sortedset.DefaultSortedSetDocValuesReaderState;
+import org.apache.lucene.facet.sortedset.SortedSetDocValuesReaderState;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.MultiReader;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Keeps the MultiReader of a unified search, and the facet state built over it, for as long as the searched indexes
+ * are unchanged. Building the state (a global ordinal map over every facet value of the searched indexes) is the
+ * costly part of counting facets; the state only works with the exact reader it was built over, so the reader is
+ * kept with it.
+ * <p>
+ * Entries are keyed by the searched item types and hold the generation of each index (see SearcherRegistry) along
+ * with the searchers' readers they were built over. An entry is reused only while both still match, and is dropped
+ * as soon as a generation moves on, so it never keeps old index files open for long. Readers are reference counted:
+ * an entry that is dropped while a search is using it stays open until that search releases it.
+ *
+ * @author Josh Harkema
+ */
+class FacetReaderCache {
+    private static final String SEPARATOR = ",";
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * A reader over the searchers of one search, and its facet state.
+     */
+    static final class Entry {
+        private final long[] generations;
+        private final IndexReader[] readers;
+        private final MultiReader reader;
+        private final SortedSetDocValuesReaderState state;
+
+        private Entry(final long[] generations, final IndexReader[] readers) throws IOException {
+            this.generations = generations;
+            this.readers = readers;
+            this.reader = new MultiReader(readers, false);
+            SortedSetDocValuesReaderState facets;
+            try {
+                facets = new DefaultSortedSetDocValuesReaderState(reader);
+            } catch (IllegalArgumentException e) { // None of the searched indexes have facets.
+                facets = null;
+            } catch (IOException e) {
+                reader.close(); // Only gives back the references it took on the searchers' readers.
+                throw e;
+            }
+            this.state = facets;
+        }
+
+        MultiReader getReader() {
+            return reader;
+        }
+
+        /**
+         * @return the facet state of the reader; null if none of its indexes have facets.
+         */
+        SortedSetDocValuesReaderState getState() {
+            return state;
+        }
+    }
+
+    /**
+     * @param itemTypes the item types to search.
+     * @return the current generation of each of their indexes; read before acquiring the searchers.
+     */
+    static long[] generations(final String[] itemTypes) {
+        return Arrays.stream(itemTypes).mapToLong(t -> SearcherRegistry.generation(new String[]{t})).toArray();
+    }
+
+    /**
+     * @param itemTypes   the item types searched.
+     * @param generations the generation of each of their indexes, read before the searchers were acquired.
+     * @param readers     the readers of the acquired searchers, in the same order.
+     * @return an entry over exactly those readers; return it with release() when finished.
+     * @throws IOException if the facet state cannot be built.
+     */
+    Entry acquire(final String[] itemTypes, final long[] generations, final IndexReader[] readers)
+            throws IOException {
+        dropStale();
+        String key = String.join(SEPARATOR, itemTypes);
+        Entry cached = entries.get(key);
+        if (cached != null && Arrays.equals(cached.generations, generations) &&
+                Arrays.equals(cached.readers, readers) && cached.reader.tryIncRef()) {
+            return cached;
+        }
+        Entry entry = new Entry(generations, readers);
+        entry.reader.incRef(); // The caller's reference; the cache holds the first.
+        Entry replaced = entries.put(key, entry);
+        if (replaced != null) {
+            replaced.reader.decRef();
+        }
+        return entry;
+    }
+
+    /**
+     * @param entry an entry returned by acquire().
+     * @throws IOException if the reader fails to close.
+     */
+    void release(final Entry entry) throws IOException {
+        entry.reader.decRef();
+    }
+
+    /**
+     * Drops the entries of indexes that changed since they were built.
+     */
+    private void dropStale() throws IOException {
+        for (Map.Entry<String, Entry> cached : entries.entrySet()) {
+            Entry entry = cached.getValue();
+            if (!Arrays.equals(entry.generations, generations(cached.getKey().split(SEPARATOR))) &&
+                    entries.remove(cached.getKey(), entry)) {
+                entry.reader.decRef();
+            }
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package org.acl.database.services.search;
+
+import org.acl.database.config.LuceneConfig;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.highlight.*;
+import org.apache.lucene.search.vectorhighlight.FastVectorHighlighter;
+import org.apache.lucene.search.vectorhighlight.FieldQuery;
+import org.apache.lucene.search.vectorhighlight.ScoreOrderFragmentsBuilder;
+import org.apache.lucene.search.vectorhighlight.SimpleFragListBuilder;
+
+import java.io.IOException;
+
+/**
+ * Finds the best matching TEXT passages of a hit, wrapped in highlight markup. Two modes are available:
+ * <p>
+ * "vector" (the default) reads the term vectors, positions and offsets stored with every TEXT field (see
+ * LuceneConfig.getTextField) with a FastVectorHighlighter, so the text is never re-analyzed.
+ * <p>
+ * "classic" re-analyzes the stored text with a Highlighter and QueryScorer.
+ * <p>
+ * Both return up to MAX_FRAGMENTS fragments of about FRAGMENT_SIZE characters, best first. Instances are bound to a
+ * single query and reader and are not thread safe.
+ *
+ * @author Josh Harkema
+ */
+public abstract class FragmentHighlighter {
+    public static final String VECTOR = "vector";
+    public static final String CLASSIC = "classic";
+
+    /**
+     * @param mode   either "vector" or "classic"; anything else is treated as "vector".
+     * @param query  the executed query.
+     * @param reader the reader the hits' doc ids belong to.
+     * @return a highlighter for the query.
+     * @throws IOException if the query cannot be rewritten against the reader.
+     */
+    public static FragmentHighlighter create(final String mode, final Query query, final IndexReader reader)
+            throws IOException {
+        if (CLASSIC.equalsIgnoreCase(mode)) {
+            return new AnalyzingHighlighter(query);
+        }
+        return new TermVectorHighlighter(query, reader);
+    }
+
+    /**
+     * @param docId    the hit's doc id.
+     * @param document the hit's stored fields.
+     * @return the highlighted fragments (empty if the hit has no matching text.)
+     * @throws IOException if the hit cannot be read.
+     */
+    public abstract String[] getBestFragments(int docId, Document document) throws IOException;
+
+    private static final class TermVectorHighlighter extends FragmentHighlighter {
+        private final FastVectorHighlighter highlighter = new FastVectorHighlighter(true, true,
+                new SimpleFragListBuilder(), new ScoreOrderFragmentsBuilder(
+                new String[]{SearchConstants.HIGHLIGHT_PRE_TAG}, new String[]{SearchConstants.HIGHLIGHT_POST_TAG}));
+        private final FieldQuery fieldQuery;
+        private final IndexReader reader;
+
+        private TermVectorHighlighter(final Query query, final IndexReader reader) throws IOException {
+            this.fieldQuery = highlighter.getFieldQuery(query, reader);
+            this.reader = reader;
+        }
+
+        @Override
+        public String[] getBestFragments(final int docId, final Document document) throws IOException {
+            String[] fragments = highlighter.getBestFragments(fieldQuery, reader, docId, SearchConstants.TEXT,
+                    SearchConstants.FRAGMENT_SIZE, SearchConstants.MAX_FRAGMENTS);
+            return fragments == null ? new String[0] : fragments;
+        }
+    }
+
+    private static final class AnalyzingHighlighter extends FragmentHighlighter {
+        private final Highlighter highlighter;
+
+        private AnalyzingHighlighter(final Query query) {
+            QueryScorer scorer = new QueryScorer(query);
+            this.highlighter = new Highlighter(new SimpleHTMLFormatter(SearchConstants.HIGHLIGHT_PRE_TAG,
+                    SearchConstants.HIGHLIGHT_POST_TAG), scorer);
+            this.highlighter.setTextFragmenter(new SimpleSpanFragmenter(scorer, SearchConstants.FRAGMENT_SIZE));
+        }
+
+        @Override
+        public String[] getBestFragments(final int docId, final Document document) throws IOException {
+            String text = document.get(SearchConstants.TEXT);
+            if (text == null) {
+                return new String[0];
+            }
+            try {
+                return highlighter.getBestFragments(LuceneConfig.getAnalyzer(), SearchConstants.TEXT, text,
+                        SearchConstants.MAX_FRAGMENTS);
+            } catch (InvalidTokenOffsetsException e) {
+                throw new IOException(e);
+            }
+        }
+    }
+}
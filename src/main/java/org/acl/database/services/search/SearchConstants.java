@@ -14,13 +14,30 @@ public abstract class SearchConstants {
 
     public static final Path DOCS_PATH = Paths.get("/var/lucene/indexes");
 
+    // Index writer commit policy defaults.
+    public static final long COMMIT_INTERVAL_MS = 5000;
+    public static final int COMMIT_MAX_PENDING = 100;
+    public static final long SEARCHER_REFRESH_MS = 1000;
+
+    // Index versioning. Bump INDEX_VERSION whenever the document structure changes; indexes written with any other
+    // version are rebuilt from scratch at startup.
+    public static final String INDEX_VERSION = "3";
+    public static final int REINDEX_BATCH_SIZE = 100;
+    public static final int REINDEX_QUEUE_CAPACITY = 8; // Pages of documents waiting to be written.
+
     // Numeric range query settings.
     public static final int INT_DISTANCE = 20;
 
     // Result constants
     public static final int MAX_RESULT_SIZE = 100;
+    public static final int RESULT_CACHE_SIZE = 500; // Serialized search results kept in memory.
+    public static final int PAGE_SIZE = 20; // Default page size of paged searches (at most MAX_RESULT_SIZE.)
+    public static final double CURSOR_TTL_SECONDS = 600; // How long paged searchers outlive a newer searcher.
+    public static final int FACET_SIZE = 25; // Values returned per facet, most frequent first.
     public static final int FRAGMENT_SIZE = 75;
     public static final int MAX_FRAGMENTS = 5;
+    public static final String HIGHLIGHT_PRE_TAG = "<span class='highlight'>";
+    public static final String HIGHLIGHT_POST_TAG = "</span>";
 
     // General field names.
     public static final String ID = "id";
@@ -35,11 +52,13 @@ public abstract class SearchConstants {
     public static final String TOPIC_MODEL = "topic_model";
     public static final String VERSION_TEXT = "version_text";
     public static final String BEST_FRAGMENT = "context";
+    public static final String LAST_MODIFIED = "lastModified";
 
     // Lucene fuzzy and phrase query constants.
     public static final int PRECISION_STEP = 2;
     public static final int PREFIX_LENGTH = 0; // How many chars are "fixed" to the front.
     public static final int EDIT_DISTANCE = 2; // Levenstein edit distance.
+    public static final double DUPLICATE_TITLE_SIMILARITY = 0.8; // Title word overlap (Jaccard) of duplicates.
     public static final int SLOP = 2; // Words are separated by no more than 3 words.
 
     // Item specific field names.
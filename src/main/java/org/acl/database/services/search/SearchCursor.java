@@ -0,0 +1,229 @@
+package org.acl.database.services.search;
+
+import org.acl.database.services.exceptions.InvalidCursorException;
+import org.apache.lucene.search.FieldDoc;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.util.BytesRef;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * The position of the last hit on a page of search results, handed to clients as an opaque token. A cursor records
+ * the pinned searcher (reader version) of every index the page was searched with (see SearcherRegistry.pin), so the
+ * next page reads exactly the same documents and doc ids whatever was written since. It also records the sort, and
+ * for sorted searches the sort values of the last hit, which searchAfter needs.
+ *
+ * @author Josh Harkema
+ */
+public class SearchCursor {
+    private static final String SEPARATOR = ":";
+    private static final String LIST_SEPARATOR = ",";
+    private static final int PARTS = 7;
+    private final String[] itemTypes;
+    private final long[] versions;
+    private final String sortKey;
+    private final int doc;
+    private final float score;
+    private final Object[] fields;
+    private final long seen;
+
+    /**
+     * @param itemTypes the item types searched.
+     * @param versions  the pinned searcher token of each item type, in the same order.
+     * @param sortKey   the sortKey() of the sort used.
+     * @param last      the last hit returned (a FieldDoc for sorted searches.)
+     * @param seen      the number of hits returned so far, including this page.
+     */
+    public SearchCursor(final String[] itemTypes, final long[] versions, final String sortKey, final ScoreDoc last,
+                        final long seen) {
+        this(itemTypes, versions, sortKey, last.doc, last.score,
+                last instanceof FieldDoc ? ((FieldDoc) last).fields : null, seen);
+    }
+
+    private SearchCursor(final String[] itemTypes, final long[] versions, final String sortKey, final int doc,
+                         final float score, final Object[] fields, final long seen) {
+        this.itemTypes = itemTypes;
+        this.versions = versions;
+        this.sortKey = sortKey;
+        this.doc = doc;
+        this.score = score;
+        this.fields = fields;
+        this.seen = seen;
+    }
+
+    /**
+     * @param sort the sort of a search; null for relevance.
+     * @return a short fingerprint of the sort, so a cursor is never used with a different sort.
+     */
+    public static String sortKey(final Sort sort) {
+        return sort == null ? "" : Integer.toHexString(sort.toString().hashCode());
+    }
+
+    /**
+     * @param token a token created by encode().
+     * @return the decoded cursor.
+     * @throws InvalidCursorException if the token was not created by encode().
+     */
+    public static SearchCursor decode(final String token) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8)
+                    .split(SEPARATOR, -1);
+            if (parts.length != PARTS) {
+                throw new InvalidCursorException("Invalid search cursor.");
+            }
+            String[] itemTypes = parts[0].split(LIST_SEPARATOR);
+            String[] versionParts = parts[1].split(LIST_SEPARATOR);
+            if (itemTypes.length != versionParts.length) {
+                throw new InvalidCursorException("Invalid search cursor.");
+            }
+            long[] versions = new long[versionParts.length];
+            for (int i = 0; i < versions.length; i++) {
+                versions[i] = Long.parseLong(versionParts[i]);
+            }
+            return new SearchCursor(itemTypes, versions, parts[2], Integer.parseInt(parts[3]),
+                    Float.intBitsToFloat(Integer.parseInt(parts[4])), decodeFields(parts[6]),
+                    Long.parseLong(parts[5]));
+        } catch (IllegalArgumentException e) { // Includes NumberFormatException.
+            throw new InvalidCursorException("Invalid search cursor.");
+        }
+    }
+
+    /**
+     * @return an opaque, URL safe token.
+     */
+    public String encode() {
+        StringBuilder versionList = new StringBuilder();
+        for (long version : versions) {
+            if (versionList.length() > 0) {
+                versionList.append(LIST_SEPARATOR);
+            }
+            versionList.append(version);
+        }
+        String raw = String.join(LIST_SEPARATOR, itemTypes) + SEPARATOR + versionList + SEPARATOR + sortKey +
+                SEPARATOR + doc + SEPARATOR + Float.floatToIntBits(score) + SEPARATOR + seen + SEPARATOR +
+                encodeFields(fields);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param itemTypes the item types of the search to continue.
+     * @param sortKey   the sortKey() of its sort.
+     * @return true if this cursor came from a search of the same item types with the same sort.
+     */
+    public boolean matches(final String[] itemTypes, final String sortKey) {
+        return Arrays.equals(this.itemTypes, itemTypes) && this.sortKey.equals(sortKey);
+    }
+
+    /**
+     * @return the ScoreDoc to pass to searchAfter of a relevance ranked search.
+     */
+    public ScoreDoc toScoreDoc() {
+        return new ScoreDoc(doc, score);
+    }
+
+    /**
+     * @return the FieldDoc to pass to searchAfter of a sorted search.
+     * @throws InvalidCursorException if the cursor is from a relevance ranked search.
+     */
+    public FieldDoc toFieldDoc() {
+        if (fields == null) {
+            throw new InvalidCursorException("Invalid search cursor.");
+        }
+        return new FieldDoc(doc, score, fields);
+    }
+
+    /**
+     * @param index the position of the item type in the searched item types.
+     * @return the token of the pinned searcher for that item type.
+     */
+    public long getVersion(final int index) {
+        return versions[index];
+    }
+
+    public long getSeen() {
+        return seen;
+    }
+
+    /**
+     * Sort values are Integers (YEAR), Floats (scores) or BytesRefs (string doc values), and null where a hit has no
+     * value.
+     */
+    private static String encodeFields(final Object[] fields) {
+        if (fields == null) {
+            return "";
+        }
+        StringBuilder out = new StringBuilder("[");
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                out.append(LIST_SEPARATOR);
+            }
+            Object field = fields[i];
+            if (field == null) {
+                out.append('n');
+            } else if (field instanceof Integer) {
+                out.append('i').append(field);
+            } else if (field instanceof Long) {
+                out.append('l').append(field);
+            } else if (field instanceof Float) {
+                out.append('f').append(Float.floatToIntBits((Float) field));
+            } else if (field instanceof BytesRef) {
+                out.append('s').append(Base64.getUrlEncoder().withoutPadding()
+                        .encodeToString(BytesRef.deepCopyOf((BytesRef) field).bytes));
+            } else {
+                throw new IllegalStateException("Unsupported sort value: " + field.getClass());
+            }
+        }
+        return out.toString();
+    }
+
+    private static Object[] decodeFields(final String encoded) {
+        if (encoded.isEmpty()) {
+            return null;
+        }
+        if (!encoded.startsWith("[")) {
+            throw new InvalidCursorException("Invalid search cursor.");
+        }
+        String[] parts = encoded.substring(1).split(LIST_SEPARATOR, -1);
+        Object[] fields = new Object[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            String part = parts[i];
+            String value = part.isEmpty() ? "" : part.substring(1);
+            switch (part.isEmpty() ? ' ' : part.charAt(0)) {
+                case 'n':
+                    fields[i] = null;
+                    break;
+                case 'i':
+                    fields[i] = Integer.parseInt(value);
+                    break;
+                case 'l':
+                    fields[i] = Long.parseLong(value);
+                    break;
+                case 'f':
+                    fields[i] = Float.intBitsToFloat(Integer.parseInt(value));
+                    break;
+                case 's':
+                    fields[i] = new BytesRef(Base64.getUrlDecoder().decode(value));
+                    break;
+                default:
+                    throw new InvalidCursorException("Invalid search cursor.");
+            }
+        }
+        return fields;
+    }
+
+    @Override
+    public String toString() {
+        return "SearchCursor{" +
+                "itemTypes=" + Arrays.toString(itemTypes) +
+                ", versions=" + Arrays.toString(versions) +
+                ", sortKey='" + sortKey + '\'' +
+                ", doc=" + doc +
+                ", score=" + score +
+                ", fields=" + Arrays.toString(fields) +
+                ", seen=" + seen +
+                '}';
+    }
+}
@@ -5,22 +5,46 @@ import org.acl.database.config.LuceneConfig;
 import org.acl.database.persistence.dtos.base.AuthorDto;
 import org.acl.database.persistence.dtos.web.SearchParamDto;
 import org.acl.database.persistence.models.TypeConstants;
-import org.acl.database.search.SearchRepository;
+import org.acl.database.search.IndexProgress;
+import org.acl.database.search.PoemDuplicates;
+import org.acl.database.search.QueryTerms;
+import org.acl.database.search.SearcherRegistry;
+import org.acl.database.services.exceptions.InvalidCursorException;
 import org.apache.log4j.Logger;
 import org.apache.lucene.document.Document;
+import org.apache.lucene.document.IntPoint;
+import org.apache.lucene.facet.FacetResult;
+import org.apache.lucene.facet.Facets;
+import org.apache.lucene.facet.FacetsCollector;
+import org.apache.lucene.facet.LabelAndValue;
+import org.apache.lucene.facet.sortedset.SortedSetDocValuesFacetCounts;
+import org.apache.lucene.facet.sortedset.SortedSetDocValuesReaderState;
 import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexableField;
+import org.apache.lucene.index.MultiReader;
 import org.apache.lucene.index.Term;
 import org.apache.lucene.queryparser.classic.MultiFieldQueryParser;
 import org.apache.lucene.queryparser.classic.ParseException;
 import org.apache.lucene.search.*;
-import org.apache.lucene.search.highlight.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 /**
  * Routes a SearchDto into queries based on boolean flags set in the dto.
@@ -37,23 +61,190 @@ public class SearchQueryHandlerService {
             TypeConstants.PLAY,
             TypeConstants.DILI
     };
+    private static final String[] facetDimensions = new String[]{
+            SearchConstants.PERIOD,
+            SearchConstants.POEM_FORM,
+            SearchConstants.CATEGORY,
+            SearchConstants.AUTHOR_LAST_NAME
+    };
+    private static final String FUZZY = "FUZZY";
+    private static final String PREFIX = "PREFIX";
+    private static final String WILDCARD = "WILDCARD";
+    private static final int UNMERGED_SHARD = -1;
+    private final Executor searchExecutor;
+    private final String highlighterMode;
+    private final SearchResultCache resultCache;
+    private final FacetReaderCache facetReaders = new FacetReaderCache();
+
+    @Autowired
+    public SearchQueryHandlerService(@Qualifier("threadPoolTaskExecutor") TaskExecutor searchExecutor,
+                                     @Value("${lucene.highlighter:" + FragmentHighlighter.VECTOR + "}")
+                                             String highlighterMode,
+                                     @Value("${lucene.search.cache-size:" + SearchConstants.RESULT_CACHE_SIZE + "}")
+                                             int resultCacheSize) {
+        this.searchExecutor = searchExecutor;
+        this.highlighterMode = highlighterMode;
+        this.resultCache = new SearchResultCache(resultCacheSize);
+    }
 
     /**
+     * Runs the search string through the same analyzer the field was indexed with, so stop words, possessives and
+     * plurals are handled exactly as they were at index time. Untokenized fields (ids and period) are matched on the
+     * exact, trimmed value, case sensitively (see QueryTerms.)
+     *
      * @param in    the search string.
      * @param field the field to search.
-     * @return a TermQuery or PhraseQuery depending on the logic below.
+     * @return a term, phrase or match-nothing query (see QueryTerms.fieldQuery.)
+     */
+    private static Query parseField(final String in, final String field) {
+        return QueryTerms.fieldQuery(field, in);
+    }
+
+    /**
+     * Builds a fuzzy, prefix or wildcard query. These match against indexed terms, so the search string is only
+     * normalized (lowercased) by the field's analyzer, not tokenized or stemmed. Every whitespace separated word must
+     * match.
+     *
+     * @param in    the search string (with * and ? wildcards for WILDCARD.)
+     * @param field the field to search.
+     * @param type  one of FUZZY, PREFIX or WILDCARD.
+     * @return the query.
      */
-    private static Query parseField(String in, final String field) {
-        in = in.toLowerCase();
-        if (in.split(" ").length > 1) {
-            PhraseQuery.Builder builder = new PhraseQuery.Builder();
-            for (String s : in.split(" ")) {
-                builder.add(new Term(field, s.trim()));
+    private static Query parseMultiTerm(final String in, final String field, final String type) {
+        BooleanQuery.Builder builder = new BooleanQuery.Builder();
+        for (String word : QueryTerms.normalize(in).split(" ")) {
+            if (word.isEmpty()) {
+                continue;
             }
-            builder.setSlop(SearchConstants.SLOP);
-            return builder.build();
-        } else {
-            return new TermQuery(new Term(field, in.trim()));
+            Term term = QueryTerms.term(field, word);
+            switch (type) {
+                case FUZZY:
+                    builder.add(new FuzzyQuery(term, SearchConstants.EDIT_DISTANCE, SearchConstants.PREFIX_LENGTH),
+                            BooleanClause.Occur.MUST);
+                    break;
+                case PREFIX:
+                    builder.add(new PrefixQuery(term), BooleanClause.Occur.MUST);
+                    break;
+                default:
+                    builder.add(new WildcardQuery(term), BooleanClause.Occur.MUST);
+                    break;
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * @param dto a single search clause.
+     * @return a range query if either range bound is set, an exact match for numeric fields, a fuzzy, prefix or
+     * wildcard query if the clause's queryType asks for one, and an analyzed term or phrase query otherwise.
+     */
+    private static Query parseParam(final SearchParamDto dto) {
+        if (dto.getRangeFrom() != null || dto.getRangeTo() != null) {
+            return IntPoint.newRangeQuery(dto.getFieldName(),
+                    dto.getRangeFrom() == null ? Integer.MIN_VALUE : dto.getRangeFrom(),
+                    dto.getRangeTo() == null ? Integer.MAX_VALUE : dto.getRangeTo());
+        }
+        if (SearchConstants.YEAR.equals(dto.getFieldName()) || SearchConstants.JOURNAL_VOL.equals(dto.getFieldName())) {
+            try {
+                return IntPoint.newExactQuery(dto.getFieldName(),
+                        Integer.parseInt(QueryTerms.normalize(dto.getSearchString())));
+            } catch (NumberFormatException e) {
+                return new MatchNoDocsQuery("Not a number: " + dto.getSearchString());
+            }
+        }
+        String type = dto.getQueryType() == null ? "" : dto.getQueryType().trim().toUpperCase(Locale.ROOT);
+        switch (type) {
+            case FUZZY:
+            case PREFIX:
+            case WILDCARD:
+                return parseMultiTerm(dto.getSearchString(), dto.getFieldName(), type);
+            default:
+                return parseField(dto.getSearchString(), dto.getFieldName());
+        }
+    }
+
+    /**
+     * @param sort the requested sort: "relevance" (or null), or one of "year", "period", "form", "category" and
+     *             "author" (ascending), optionally prefixed with "-" (descending.)
+     * @return the matching Sort, ties broken by relevance; null for relevance. Items without a value always sort
+     * last.
+     */
+    private static Sort parseSort(final String sort) {
+        if (sort == null) {
+            return null;
+        }
+        boolean reverse = sort.startsWith("-");
+        switch (reverse ? sort.substring(1) : sort) {
+            case "year":
+                SortField year = new SortField(SearchConstants.YEAR, SortField.Type.INT, reverse);
+                year.setMissingValue(reverse ? Integer.MIN_VALUE : Integer.MAX_VALUE);
+                return new Sort(year, SortField.FIELD_SCORE);
+            case "period":
+                return sortByString(SearchConstants.PERIOD, reverse);
+            case "form":
+                return sortByString(SearchConstants.POEM_FORM, reverse);
+            case "category":
+                return sortByString(SearchConstants.CATEGORY, reverse);
+            case "author":
+                return sortByString(SearchConstants.AUTHOR_LAST_NAME, reverse);
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * @param field   a field indexed with SortedDocValues (see SearchRepository.addSortable.)
+     * @param reverse true for descending.
+     * @return a Sort on the field, then by relevance.
+     */
+    private static Sort sortByString(final String field, final boolean reverse) {
+        SortField sortField = new SortField(field, SortField.Type.STRING, reverse);
+        sortField.setMissingValue(reverse ? SortField.STRING_FIRST : SortField.STRING_LAST);
+        return new Sort(sortField, SortField.FIELD_SCORE);
+    }
+
+    /**
+     * Counts the values of every facet dimension over the hits of a search.
+     *
+     * @param state the facet state of the reader that was searched (see FacetReaderCache); null if it has none.
+     * @param hits  the collected hits.
+     * @return up to FACET_SIZE value counts (most frequent first) for each dimension present in the reader.
+     * @throws IOException if the facet doc values cannot be read.
+     */
+    private static Map<String, Map<String, Number>> countFacets(final SortedSetDocValuesReaderState state,
+                                                                final FacetsCollector hits) throws IOException {
+        Map<String, Map<String, Number>> out = new LinkedHashMap<>();
+        if (state == null) {
+            return out;
+        }
+        Facets facets = new SortedSetDocValuesFacetCounts(state, hits);
+        for (String dimension : facetDimensions) {
+            if (state.getOrdRange(dimension) == null) { // Not indexed by any of the searched types.
+                continue;
+            }
+            Map<String, Number> counts = new LinkedHashMap<>();
+            FacetResult result = facets.getTopChildren(SearchConstants.FACET_SIZE, dimension);
+            if (result != null) {
+                for (LabelAndValue value : result.labelValues) {
+                    counts.put(value.label, value.value);
+                }
+            }
+            out.put(dimension, counts);
+        }
+        return out;
+    }
+
+    /**
+     * Returns an acquired searcher to its manager. Release errors are logged, never thrown.
+     *
+     * @param itemType the index type the searcher was acquired from.
+     * @param searcher the searcher to release (may be null.)
+     */
+    private static void release(final String itemType, final IndexSearcher searcher) {
+        try {
+            SearcherRegistry.release(itemType, searcher);
+        } catch (IOException e) {
+            LOGGER.error(String.format("[SEARCH] :::::: Error releasing \"%s\" searcher.", itemType));
         }
     }
 
@@ -65,7 +256,7 @@ public class SearchQueryHandlerService {
      */
     private static Query parseSearchParams(final List<SearchParamDto> dtos) {
         if (dtos.size() == 1) {
-            return parseField(dtos.get(0).getSearchString(), dtos.get(0).getFieldName());
+            return parseParam(dtos.get(0));
         } else {
             BooleanQuery.Builder builder = new BooleanQuery.Builder();
             for (SearchParamDto d : dtos) {
@@ -81,53 +272,126 @@ public class SearchQueryHandlerService {
                         clause = BooleanClause.Occur.MUST;
                         break;
                 }
-                builder.add(parseField(d.getSearchString(), d.getFieldName()), clause);
+                builder.add(parseParam(d), clause);
             }
             return builder.build();
         }
     }
 
     /**
-     * Tests to see if a poem with by an author has the same title.
+     * Tests to see if a poem by an author has the same (or a similar) title. Answered from PoemDuplicates once it is
+     * loaded; until then the poem index is searched.
      *
      * @param title    the title of the poem.
      * @param lastName the last name of the author.
-     * @return true if a similar poem exists, false otherwise (including error.)
+     * @return true if NO similar poem exists, false otherwise (including error.)
      */
     public static boolean similarPoemExists(final String title, final String lastName) {
         LOGGER.debug(String.format("[SEARCH] :::::: Searching for poem with title '%s' by '%s'.", title,
                 lastName));
-        try (IndexReader reader = SearchRepository.getReader(TypeConstants.POEM)) {
-            IndexSearcher searcher = new IndexSearcher(reader);
+        if (PoemDuplicates.isLoaded()) {
+            return !PoemDuplicates.exists(title, lastName);
+        }
+        return !similarPoemIndexed(title, lastName);
+    }
+
+    /**
+     * The fallback of similarPoemExists() until PoemDuplicates is loaded: a title phrase search of the poem index.
+     * AUTHOR_LAST_NAME is analyzed, so the last name goes through the analyzer like the title.
+     *
+     * @param title    the title of the poem.
+     * @param lastName the last name of the author.
+     * @return true if the poem index has a poem by the author with a similar title, or on error.
+     */
+    static boolean similarPoemIndexed(final String title, final String lastName) {
+        IndexSearcher searcher = null;
+        try {
+            searcher = SearcherRegistry.acquire(TypeConstants.POEM);
             BooleanQuery.Builder builder = new BooleanQuery.Builder();
             builder.add(parseField(title, SearchConstants.TITLE), BooleanClause.Occur.MUST);
-            builder.add(new TermQuery(new Term(SearchConstants.AUTHOR_LAST_NAME, lastName)), BooleanClause.Occur.MUST);
+            builder.add(parseField(lastName, SearchConstants.AUTHOR_LAST_NAME), BooleanClause.Occur.MUST);
             TopDocs hits = searcher.search(builder.build(), 1, Sort.RELEVANCE);
-            return hits.totalHits.value == 0;
+            return hits.totalHits.value > 0;
         } catch (IOException e) {
             LOGGER.error(String.format("[SEARCH] :::::: Error opening \"%s\" index.", TypeConstants.POEM));
-            return false;
+            return true;
+        } finally {
+            release(TypeConstants.POEM, searcher);
         }
     }
 
     /**
-     * Grabs the most relevant fragment from a completed search result / query.
+     * @param in the item types from a request (may be null.)
+     * @return the uppercase item types, or every searchable type if none were requested.
+     */
+    private static String[] parseItemTypes(final String[] in) {
+        if (in == null || in.length == 0) {
+            return itemTypes;
+        }
+        return Arrays.stream(in).map(String::toUpperCase).toArray(String[]::new); // Types are always uppercase.
+    }
+
+    /**
+     * Waits for a search task, unwrapping any IOException it failed with.
+     *
+     * @param future the task to wait for.
+     * @param <T>    the task's result type.
+     * @return the task's result.
+     * @throws IOException if the task failed reading an index.
+     */
+    private static <T> T join(final CompletableFuture<T> future) throws IOException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) e.getCause()).getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Waits for every one of a set of search tasks, even if some fail, so that none of them is still reading a
+     * searcher when it is released.
      *
-     * @param query    an executed query.
-     * @param topDocs  the TopDocs result.
-     * @param searcher the IndexSearcher used to execute the query.
-     * @return a JSONArray with the relevant fragment.
+     * @param futures the tasks to wait for.
+     * @param <T>     the tasks' result type.
+     * @return the tasks' results, in order.
+     * @throws IOException if a task failed reading an index (the first failure, in order, is thrown.)
      */
-    private List<Map<String, String>> highlightResults(final Query query, final TopDocs topDocs,
-                                                       final IndexSearcher searcher) {
-        Formatter formatter = new SimpleHTMLFormatter("<span class='highlight'>", "</span>");
-        QueryScorer scorer = new QueryScorer(query);
-        Highlighter highlighter = new Highlighter(formatter, scorer);
-        Fragmenter fragmenter = new SimpleSpanFragmenter(scorer, SearchConstants.FRAGMENT_SIZE);
-        highlighter.setTextFragmenter(fragmenter);
-
-        List<Map<String, String>> out = new ArrayList<>();
-        for (ScoreDoc d : topDocs.scoreDocs) {
+    private static <T> List<T> joinAll(final List<CompletableFuture<T>> futures) throws IOException {
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).handle((done, e) -> null).join();
+        List<T> out = new ArrayList<>(futures.size());
+        for (CompletableFuture<T> future : futures) {
+            out.add(join(future));
+        }
+        return out;
+    }
+
+    /**
+     * Grabs the most relevant fragments for every merged hit that came from one index.
+     *
+     * @param query      an executed query.
+     * @param hits       the merged hits from every index.
+     * @param shardIndex the position of this index in the merge.
+     * @param searcher   the IndexSearcher used to execute the query.
+     * @return the highlighted results, keyed by their position in the merged hits.
+     */
+    private Map<Integer, Map<String, String>> highlightResults(final Query query, final ScoreDoc[] hits,
+                                                               final int shardIndex, final IndexSearcher searcher) {
+        FragmentHighlighter highlighter;
+        try {
+            highlighter = FragmentHighlighter.create(highlighterMode, query, searcher.getIndexReader());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        Map<Integer, Map<String, String>> out = new HashMap<>();
+        for (int i = 0; i < hits.length; i++) {
+            ScoreDoc d = hits[i];
+            if (d.shardIndex != shardIndex) {
+                continue;
+            }
             try {
                 Document document = searcher.doc(d.doc);
                 Map<String, String> objectOut = new HashMap<>();
@@ -141,54 +405,101 @@ public class SearchQueryHandlerService {
                 objectOut.put(SearchConstants.IS_PUBLIC, document.get(SearchConstants.IS_PUBLIC));
                 objectOut.put(SearchConstants.TOPIC_MODEL, document.get(SearchConstants.TOPIC_MODEL));
                 objectOut.put(SearchConstants.PARENT_TITLE, document.get(SearchConstants.PARENT_TITLE));
+                IndexableField year = document.getField(SearchConstants.YEAR);
+                objectOut.put(SearchConstants.YEAR, year == null ? null : String.valueOf(year.numericValue()));
 
                 // Text highlighting; returns up to MAX_FRAGMENTS matching passages.
-                objectOut.put(SearchConstants.BEST_FRAGMENT,
-                        String.join(SearchConstants.FRAGMENT_DELIMITER, highlighter.getBestFragments(
-                                LuceneConfig.getAnalyzer(),
-                                SearchConstants.TEXT,
-                                document.get(SearchConstants.TEXT),
-                                SearchConstants.MAX_FRAGMENTS)));
-                out.add(objectOut);
+                objectOut.put(SearchConstants.BEST_FRAGMENT, String.join(SearchConstants.FRAGMENT_DELIMITER,
+                        highlighter.getBestFragments(d.doc, document)));
+                out.put(i, objectOut);
             } catch (IOException e) {
                 LOGGER.error(e);
                 LOGGER.error(String.format("[SEARCH] :::::: Error processing document '%s'", d.doc));
-            } catch (InvalidTokenOffsetsException e) {
-                LOGGER.error(e);
             }
         }
         return out;
     }
 
+    /**
+     * Runs a query against several indexes in parallel on the search executor. The hits are merged by score (or by
+     * sort) into a single top MAX_RESULT_SIZE ranking, and only those hits are highlighted (again in parallel, one
+     * task per index.)
+     *
+     * @param query     the query to run.
+     * @param sort      the sort to rank by; null for relevance.
+     * @param itemTypes the item types (indexes) to search.
+     * @return the highlighted results, best first.
+     * @throws IOException if any index cannot be searched.
+     */
+    private List<Map<String, String>> searchIndexes(final Query query, final Sort sort, final String[] itemTypes)
+            throws IOException {
+        IndexSearcher[] searchers = new IndexSearcher[itemTypes.length];
+        try {
+            for (int i = 0; i < itemTypes.length; i++) {
+                searchers[i] = SearcherRegistry.acquire(itemTypes[i]);
+            }
+
+            List<CompletableFuture<TopDocs>> searches = new ArrayList<>();
+            for (IndexSearcher searcher : searchers) {
+                searches.add(CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return sort == null ? searcher.search(query, SearchConstants.MAX_RESULT_SIZE) :
+                                searcher.search(query, SearchConstants.MAX_RESULT_SIZE, sort);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }, searchExecutor));
+            }
+            TopDocs[] shardHits = joinAll(searches).toArray(new TopDocs[0]);
+            ScoreDoc[] merged = sort == null ? TopDocs.merge(SearchConstants.MAX_RESULT_SIZE, shardHits).scoreDocs :
+                    TopDocs.merge(sort, SearchConstants.MAX_RESULT_SIZE,
+                            Arrays.copyOf(shardHits, shardHits.length, TopFieldDocs[].class)).scoreDocs;
+
+            List<CompletableFuture<Map<Integer, Map<String, String>>>> highlights = new ArrayList<>();
+            for (int i = 0; i < searchers.length; i++) {
+                final int shardIndex = i;
+                highlights.add(CompletableFuture.supplyAsync(
+                        () -> highlightResults(query, merged, shardIndex, searchers[shardIndex]), searchExecutor));
+            }
+            Map<Integer, Map<String, String>> ranked = new TreeMap<>();
+            joinAll(highlights).forEach(ranked::putAll);
+            return new ArrayList<>(ranked.values());
+        } finally {
+            for (int i = 0; i < itemTypes.length; i++) {
+                release(itemTypes[i], searchers[i]);
+            }
+        }
+    }
+
     /**
      * Execute a search.
      *
      * @param params    the list of search parameters to use.
-     * @param itemTypes the list of item types to search for.
+     * @param itemTypes the list of item types to search for (defaults to every searchable type.)
+     * @param sort      the sort (see parseSort); relevance if null.
      * @return a JSON formatted string of the results.
      */
-    public String search(final List<SearchParamDto> params, final String[] itemTypes) {
-        List<Map<String, String>> out = new ArrayList<>();
-        for (String i : itemTypes) {
-            i = i.toUpperCase(); // Types are always uppercase.
-            try (IndexReader reader = SearchRepository.getReader(i)) {
-                // Init a searcher and analyzer, and parse the query string into a Query.
-                IndexSearcher searcher = new IndexSearcher(reader);
+    public String search(final List<SearchParamDto> params, final String[] itemTypes, final String sort) {
+        String[] types = parseItemTypes(itemTypes);
+        String key = SearchResultCache.key("search " + sort, params, types);
+        return resultCache.get(key, () -> {
+            try {
                 Query query = parseSearchParams(params);
                 LOGGER.debug(String.format("[SEARCH] :::::: Query string: \"%s\"", query));
-
-                // Execute search and append results to out JSONArray.
-                TopFieldDocs hits = searcher.search(query, SearchConstants.MAX_RESULT_SIZE, Sort.RELEVANCE);
-                out.addAll(highlightResults(query, hits, searcher));
+                List<Map<String, String>> out = searchIndexes(query, parseSort(sort), types);
+                LOGGER.debug("[SEARCH] :::::: Total results: " + out.size());
+                String json = gson.toJson(out);
+                resultCache.put(key, json);
+                return json;
             } catch (IOException e) {
-                LOGGER.error(String.format("[SEARCH] :::::: Error opening \"%s\" index.", i));
+                LOGGER.error(String.format("[SEARCH] :::::: Error opening \"%s\" indexes.",
+                        Arrays.toString(types)));
+                LOGGER.error(e);
                 Map<String, String> errorOut = new HashMap<>();
                 errorOut.put("error", "Something went wrong with the search indexes; it's not you, it's me.");
                 return gson.toJson(errorOut);
             }
-        }
-        LOGGER.debug("[SEARCH] :::::: Total results: " + out.size());
-        return gson.toJson(out);
+        });
     }
 
     /**
@@ -199,27 +510,194 @@ public class SearchQueryHandlerService {
      */
     public String basicSearch(final String searchString) {
         LOGGER.debug("[SEARCH] :::::: executing basic search: " + searchString);
-        MultiFieldQueryParser parser = new MultiFieldQueryParser(
-                new String[]{SearchConstants.TEXT, SearchConstants.AUTHOR_FIRST_NAME,
-                        SearchConstants.AUTHOR_LAST_NAME, SearchConstants.TITLE},
-                LuceneConfig.getAnalyzer()
-        );
-        List<Map<String, String>> out = new ArrayList<>();
-        for (String s : itemTypes) {
-            try (IndexReader reader = SearchRepository.getReader(s)) {
-                IndexSearcher searcher = new IndexSearcher(reader);
-                Query query = parser.parse(searchString);
-                TopDocs hits = searcher.search(query, SearchConstants.MAX_RESULT_SIZE, Sort.RELEVANCE);
-                out.addAll(highlightResults(query, hits, searcher));
+        String key = SearchResultCache.key("basic " + QueryTerms.normalize(searchString), itemTypes);
+        return resultCache.get(key, () -> {
+            MultiFieldQueryParser parser = new MultiFieldQueryParser(
+                    new String[]{SearchConstants.TEXT, SearchConstants.AUTHOR_FIRST_NAME,
+                            SearchConstants.AUTHOR_LAST_NAME, SearchConstants.TITLE},
+                    LuceneConfig.getAnalyzer()
+            );
+            try {
+                List<Map<String, String>> out = searchIndexes(parser.parse(searchString), null, itemTypes);
+                LOGGER.debug("[SEARCH] :::::: Total results: " + out.size());
+                String json = gson.toJson(out);
+                resultCache.put(key, json);
+                return json;
             } catch (ParseException | IOException e) {
-                LOGGER.error(String.format("[SEARCH] :::::: Error opening \"%s\" index.", s));
+                LOGGER.error(String.format("[SEARCH] :::::: Error opening \"%s\" indexes.",
+                        Arrays.toString(itemTypes)));
+                LOGGER.error(e);
                 Map<String, String> errorOut = new HashMap<>();
                 errorOut.put("error", "Something went wrong with the search indexes; it's not you, it's me.");
                 return gson.toJson(errorOut);
             }
+        });
+    }
+
+    /**
+     * Execute a search over every requested index as if it were a single index. The indexes are combined with a
+     * MultiReader, so term statistics (and therefore scores) are shared and the ranking is global. Hit counts per
+     * category, and facet counts per period, form, category and author, are collected in the same pass.
+     *
+     * @param params    the list of search parameters to use.
+     * @param itemTypes the list of item types to search for (defaults to every searchable type.)
+     * @param sort      the sort (see parseSort); relevance if null.
+     * @return a JSON formatted string with the total hit count, the count per category, the facet counts, and the
+     * top results.
+     */
+    public String unifiedSearch(final List<SearchParamDto> params, final String[] itemTypes, final String sort) {
+        String[] types = parseItemTypes(itemTypes);
+        String key = SearchResultCache.key("unified " + sort, params, types);
+        return resultCache.get(key, () -> runUnifiedSearch(params, types, sort, key));
+    }
+
+    /**
+     * Runs a unified search (see unifiedSearch) and caches its result; errors are returned, not cached.
+     *
+     * @param params the list of search parameters to use.
+     * @param types  the (already parsed) item types to search.
+     * @param sort   the sort (see parseSort); relevance if null.
+     * @param key    the result cache key.
+     * @return a JSON formatted string of the results or the error.
+     */
+    private String runUnifiedSearch(final List<SearchParamDto> params, final String[] types, final String sort,
+                                    final String key) {
+        IndexSearcher[] searchers = new IndexSearcher[types.length];
+        try {
+            long[] generations = FacetReaderCache.generations(types);
+            IndexReader[] readers = new IndexReader[types.length];
+            for (int i = 0; i < types.length; i++) {
+                searchers[i] = SearcherRegistry.acquire(types[i]);
+                readers[i] = searchers[i].getIndexReader();
+            }
+
+            FacetReaderCache.Entry entry = facetReaders.acquire(types, generations, readers);
+            try {
+                MultiReader reader = entry.getReader();
+                IndexSearcher searcher = new IndexSearcher(reader);
+                Query query = parseSearchParams(params);
+                LOGGER.debug(String.format("[SEARCH] :::::: Unified query string: \"%s\"", query));
+
+                Sort ranking = parseSort(sort);
+                TopDocsCollector<?> topDocs = ranking == null ?
+                        TopScoreDocCollector.create(SearchConstants.MAX_RESULT_SIZE, Integer.MAX_VALUE) :
+                        TopFieldCollector.create(ranking, SearchConstants.MAX_RESULT_SIZE, Integer.MAX_VALUE);
+                CategoryCountCollector categories = new CategoryCountCollector(types, readers);
+                FacetsCollector facets = new FacetsCollector();
+                searcher.search(query, MultiCollector.wrap(topDocs, categories, facets));
+
+                // Hits from a single searcher are never merged, so all of them carry the default shard index.
+                ScoreDoc[] hits = topDocs.topDocs().scoreDocs;
+                Map<String, Object> out = new HashMap<>();
+                out.put("totalHits", categories.getTotalHits());
+                out.put("categories", categories.getCounts());
+                out.put("facets", countFacets(entry.getState(), facets));
+                out.put("results", new ArrayList<>(new TreeMap<>(
+                        highlightResults(query, hits, UNMERGED_SHARD, searcher)).values()));
+                LOGGER.debug("[SEARCH] :::::: Total results: " + categories.getTotalHits());
+                String json = gson.toJson(out);
+                resultCache.put(key, json);
+                return json;
+            } finally {
+                facetReaders.release(entry);
+            }
+        } catch (IOException e) {
+            LOGGER.error(String.format("[SEARCH] :::::: Error opening \"%s\" indexes.", Arrays.toString(types)));
+            LOGGER.error(e);
+            Map<String, String> errorOut = new HashMap<>();
+            errorOut.put("error", "Something went wrong with the search indexes; it's not you, it's me.");
+            return gson.toJson(errorOut);
+        } finally {
+            for (int i = 0; i < types.length; i++) {
+                release(types[i], searchers[i]);
+            }
+        }
+    }
+
+    /**
+     * Execute a search one page at a time. Like unifiedSearch every requested index is searched as one, and pages
+     * continue from the last hit of the previous page (searchAfter) instead of re-collecting every earlier hit. Only
+     * the hits on the requested page are highlighted.
+     * <p>
+     * The searchers of the first page are pinned and every following page reads the same ones (see SearchCursor), so
+     * writes and refreshes in between never make a page skip or repeat hits; later pages simply do not see them. A
+     * cursor expires CURSOR_TTL_SECONDS after its indexes changed, and is rejected if used with other item types or
+     * another sort.
+     *
+     * @param params    the list of search parameters to use.
+     * @param itemTypes the list of item types to search for (defaults to every searchable type.)
+     * @param sort      the sort (see parseSort); relevance if null.
+     * @param cursor    the nextCursor of the previous page; null or empty for the first page.
+     * @param pageSize  the number of hits per page (defaults to PAGE_SIZE, at most MAX_RESULT_SIZE.)
+     * @return a JSON formatted string with the total hit count, the page of results, and a nextCursor (omitted on
+     * the last page.)
+     * @throws InvalidCursorException if the cursor is malformed, expired, or from a different search.
+     */
+    public String pagedSearch(final List<SearchParamDto> params, final String[] itemTypes, final String sort,
+                              final String cursor, final Integer pageSize) {
+        String[] types = parseItemTypes(itemTypes);
+        Sort ranking = parseSort(sort);
+        String sortKey = SearchCursor.sortKey(ranking);
+        SearchCursor after = cursor == null || cursor.isEmpty() ? null : SearchCursor.decode(cursor);
+        if (after != null && !after.matches(types, sortKey)) {
+            throw new InvalidCursorException("The search cursor belongs to a search of other item types or sort.");
+        }
+        int size = pageSize == null || pageSize < 1 ? SearchConstants.PAGE_SIZE :
+                Math.min(pageSize, SearchConstants.MAX_RESULT_SIZE);
+        IndexSearcher[] searchers = new IndexSearcher[types.length];
+        try {
+            IndexReader[] readers = new IndexReader[types.length];
+            long[] versions = new long[types.length];
+            for (int i = 0; i < types.length; i++) {
+                searchers[i] = after == null ? SearcherRegistry.acquire(types[i]) :
+                        SearcherRegistry.acquirePinned(types[i], after.getVersion(i));
+                if (searchers[i] == null) {
+                    throw new InvalidCursorException("The search cursor has expired; run the search again.");
+                }
+                versions[i] = SearcherRegistry.pin(types[i], searchers[i]);
+                readers[i] = searchers[i].getIndexReader();
+            }
+
+            try (MultiReader reader = new MultiReader(readers, false)) {
+                IndexSearcher searcher = new IndexSearcher(reader);
+                Query query = parseSearchParams(params);
+                LOGGER.debug(String.format("[SEARCH] :::::: Paged query string: \"%s\" after %s", query, after));
+
+                // Count every hit, not just enough to fill the page, so totalHits is exact.
+                TopDocsCollector<?> collector = ranking == null ?
+                        TopScoreDocCollector.create(size, after == null ? null : after.toScoreDoc(),
+                                Integer.MAX_VALUE) :
+                        TopFieldCollector.create(ranking, size, after == null ? null : after.toFieldDoc(),
+                                Integer.MAX_VALUE);
+                try {
+                    searcher.search(query, collector);
+                } catch (IllegalArgumentException | ClassCastException e) { // A tampered doc id or sort value.
+                    throw new InvalidCursorException("Invalid search cursor.");
+                }
+                TopDocs page = collector.topDocs();
+
+                long seen = (after == null ? 0 : after.getSeen()) + page.scoreDocs.length;
+                Map<String, Object> out = new HashMap<>();
+                out.put("totalHits", page.totalHits.value);
+                out.put("results", new ArrayList<>(new TreeMap<>(
+                        highlightResults(query, page.scoreDocs, UNMERGED_SHARD, searcher)).values()));
+                if (page.scoreDocs.length > 0 && seen < page.totalHits.value) {
+                    ScoreDoc last = page.scoreDocs[page.scoreDocs.length - 1];
+                    out.put("nextCursor", new SearchCursor(types, versions, sortKey, last, seen).encode());
+                }
+                return gson.toJson(out);
+            }
+        } catch (IOException e) {
+            LOGGER.error(String.format("[SEARCH] :::::: Error opening \"%s\" indexes.", Arrays.toString(types)));
+            LOGGER.error(e);
+            Map<String, String> errorOut = new HashMap<>();
+            errorOut.put("error", "Something went wrong with the search indexes; it's not you, it's me.");
+            return gson.toJson(errorOut);
+        } finally {
+            for (int i = 0; i < types.length; i++) {
+                release(types[i], searchers[i]);
+            }
         }
-        LOGGER.debug("[SEARCH] :::::: Total results: " + out.size());
-        return gson.toJson(out);
     }
 
     /**
@@ -230,8 +708,9 @@ public class SearchQueryHandlerService {
      */
     public String searchAuthor(AuthorDto dto) {
         LOGGER.debug("[SEARCH] :::::: Searching for author: " + dto.toString());
-        try (IndexReader reader = SearchRepository.getReader(TypeConstants.AUTHOR)) {
-            IndexSearcher searcher = new IndexSearcher(reader);
+        IndexSearcher searcher = null;
+        try {
+            searcher = SearcherRegistry.acquire(TypeConstants.AUTHOR);
             BooleanQuery.Builder builder = new BooleanQuery.Builder();
 
             if (dto.getFirstName() != null && !dto.getFirstName().isEmpty()) {
@@ -261,6 +740,18 @@ public class SearchQueryHandlerService {
             Map<String, String> errorOut = new HashMap<>();
             errorOut.put("error", "Something went wrong with the search indexes; it's not you, it's me.");
             return gson.toJson(errorOut);
+        } finally {
+            release(TypeConstants.AUTHOR, searcher);
         }
     }
+
+    /**
+     * @return the progress of the background index synchronization for every item type.
+     */
+    public String getIndexStatus() {
+        Map<String, Object> out = new HashMap<>();
+        out.put("indexing", IndexProgress.isIndexing());
+        out.put("indexes", IndexProgress.snapshot());
+        return gson.toJson(out);
+    }
 }
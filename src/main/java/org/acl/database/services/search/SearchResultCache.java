@@ -0,0 +1,137 @@
+package org.acl.database.services.search;
+
+import org.acl.database.persistence.dtos.web.SearchParamDto;
+import org.acl.database.search.QueryTerms;
+import org.acl.database.search.SearcherRegistry;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * A size bounded, least recently used cache of serialized search results. Keys include the generation of each
+ * searched index, so results are never served once a write to any of those indexes becomes visible; entries for
+ * older generations are never hit again and are evicted as new results come in.
+ * <p>
+ * A refresh only invalidates results of searches that include the refreshed index, but searches of every type (the
+ * default) include them all, so under steady writes to any index those results are recomputed after every refresh
+ * (at most once per SEARCHER_REFRESH_MS.) Search strings keep their case in keys.
+ * <p>
+ * Identical searches that miss at the same time are coalesced: the first runs the search, the others wait for and
+ * share its result.
+ *
+ * @author Josh Harkema
+ */
+public class SearchResultCache {
+    private static final char SEPARATOR = '\u0000';
+    private final Map<String, String> cache;
+    private final ConcurrentMap<String, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * @param maxEntries the number of results to keep; 0 disables the cache.
+     */
+    public SearchResultCache(final int maxEntries) {
+        this.cache = new LinkedHashMap<String, String>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Builds a key from a normalized form of the search. Field names and search strings are trimmed, search strings
+     * have runs of whitespace collapsed (as they are when parsed), and join types default to AND. Search strings keep
+     * their case, since untokenized fields are matched exactly.
+     * Must be called before the indexes are searched.
+     *
+     * @param kind      the kind of search (i.e. "search" or "unified".)
+     * @param params    the search parameters.
+     * @param itemTypes the (already uppercased) item types searched.
+     * @return the cache key.
+     */
+    public static String key(final String kind, final List<SearchParamDto> params, final String[] itemTypes) {
+        StringBuilder builder = new StringBuilder(kind);
+        for (SearchParamDto param : params) {
+            builder.append(SEPARATOR).append(QueryTerms.normalize(param.getFieldName()))
+                    .append(SEPARATOR).append(param.getJoinType() == null ? "AND" :
+                    param.getJoinType().trim().toUpperCase(Locale.ROOT))
+                    .append(SEPARATOR).append(QueryTerms.normalize(param.getSearchString()))
+                    .append(SEPARATOR).append(QueryTerms.normalize(param.getQueryType()).toUpperCase(Locale.ROOT))
+                    .append(SEPARATOR).append(param.getRangeFrom())
+                    .append(SEPARATOR).append(param.getRangeTo());
+        }
+        return key(builder.toString(), itemTypes);
+    }
+
+    /**
+     * @param search    the normalized search.
+     * @param itemTypes the (already uppercased) item types searched.
+     * @return the cache key.
+     */
+    public static String key(final String search, final String[] itemTypes) {
+        StringBuilder builder = new StringBuilder(search);
+        for (String itemType : itemTypes) {
+            builder.append(SEPARATOR).append(itemType).append('=')
+                    .append(SearcherRegistry.generation(new String[]{itemType}));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * @param key the key from key().
+     * @return the cached result or null.
+     */
+    public synchronized String get(final String key) {
+        return cache.get(key);
+    }
+
+    /**
+     * Returns the cached result or, on a miss, runs the search once for every caller waiting on the same key. The
+     * search is expected to put() the results it wants cached (i.e. not errors); its result is shared either way.
+     *
+     * @param key    the key from key().
+     * @param search runs the search and returns the serialized result.
+     * @return the cached or computed result.
+     */
+    public String get(final String key, final Supplier<String> search) {
+        String cached = get(key);
+        if (cached != null) {
+            return cached;
+        }
+        CompletableFuture<String> mine = new CompletableFuture<>();
+        CompletableFuture<String> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            try {
+                return running.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+            }
+        }
+        try {
+            cached = get(key); // Put by a search that finished between the first get and putIfAbsent.
+            String result = cached != null ? cached : search.get();
+            mine.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /**
+     * @param key    the key from key().
+     * @param result the serialized result.
+     */
+    public synchronized void put(final String key, final String result) {
+        cache.put(key, result);
+    }
+}
@@ -1,6 +1,5 @@
 package org.acl.database.services.theater;
 
-import org.acl.database.config.LuceneConfig;
 import org.acl.database.persistence.dtos.theater.DialogLinesDto;
 import org.acl.database.persistence.dtos.theater.StageDirectionDto;
 import org.acl.database.persistence.models.TypeConstants;
@@ -9,12 +8,7 @@ import org.acl.database.persistence.repositories.theater.*;
 import org.acl.database.search.SearchRepository;
 import org.acl.database.security.UserDetailsServiceImpl;
 import org.acl.database.services.exceptions.ItemNotFoundException;
-import org.acl.database.services.search.SearchConstants;
 import org.apache.log4j.Logger;
-import org.apache.lucene.document.Document;
-import org.apache.lucene.document.Field;
-import org.apache.lucene.document.StringField;
-import org.apache.lucene.document.TextField;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
@@ -98,42 +92,6 @@ public class DialogLinesAndStageDirectionService {
         return stageDirection;
     }
 
-    /**
-     * Parses a DialogLines object onto a Lucene search document.
-     *
-     * @param dialogLines the object to parse.
-     * @param actId       the parent act's db ID.
-     * @param sceneId     the parent scene's db ID.
-     * @param play        the parent play.
-     * @return a Lucene doc with the details added.
-     */
-    static Document parseSearchDocument(final DialogLines dialogLines, final Long actId, final Long sceneId,
-                                        final Play play) {
-        Document document = new Document();
-        document.add(new StringField(SearchConstants.ID, dialogLines.getId().toString(), Field.Store.YES));
-        document.add(new StringField(SearchConstants.ACT_NUMBER, actId.toString(), Field.Store.YES));
-        document.add(new StringField(SearchConstants.SCENE_NUMBER, sceneId.toString(), Field.Store.YES));
-        document.add(new StringField(SearchConstants.CATEGORY, TypeConstants.DILI, Field.Store.YES));
-        document.add(new TextField(SearchConstants.TITLE, play.getTitle(), Field.Store.YES));
-        document.add(new TextField(SearchConstants.AUTHOR_FIRST_NAME, play.getAuthor().getFirstName(),
-                Field.Store.YES));
-        document.add(new TextField(SearchConstants.AUTHOR_LAST_NAME, play.getAuthor().getLastName(), Field.Store.YES));
-        if (dialogLines.getActor().getFirstName() != null) {
-            document.add(new TextField(SearchConstants.ACTOR_FIRST_NAME, dialogLines.getActor().getFirstName(),
-                    Field.Store.YES));
-        }
-        if (dialogLines.getActor().getMiddleName() != null) {
-            document.add(new TextField(SearchConstants.ACTOR_MIDDLE_NAME, dialogLines.getActor().getMiddleName(),
-                    Field.Store.YES));
-        }
-        if (dialogLines.getActor().getLastName() != null) {
-            document.add(new TextField(SearchConstants.ACTOR_LAST_NAME, dialogLines.getActor().getLastName(),
-                    Field.Store.YES));
-        }
-        document.add(LuceneConfig.getTextField(String.join("\n", dialogLines.getBody())));
-        return document;
-    }
-
     /**
      * Creates and persists a new DialogLines object.
      *
@@ -150,7 +108,7 @@ public class DialogLinesAndStageDirectionService {
 
         // Add new search doc.
         SearchRepository.addDocument(
-                parseSearchDocument(dialogLines, dto.getActId(), dto.getSceneId(),
+                SearchRepository.dialogLinesDocument(dialogLines, dto.getActId(), dto.getSceneId(),
                         playRepository.findById(dto.getPlayId()).orElseThrow(ItemNotFoundException::new)),
                 TypeConstants.DILI
         );
@@ -180,7 +138,7 @@ public class DialogLinesAndStageDirectionService {
 
             // Update the search doc.
             SearchRepository.updateDocument(lines.getId().toString(),
-                    parseSearchDocument(lines, dto.getActId(), dto.getSceneId(),
+                    SearchRepository.dialogLinesDocument(lines, dto.getActId(), dto.getSceneId(),
                             playRepository.findById(dto.getPlayId()).orElseThrow(ItemNotFoundException::new)),
                     TypeConstants.DILI);
 
@@ -6,13 +6,13 @@ import org.acl.database.persistence.models.base.Author;
 import org.acl.database.persistence.models.theater.Play;
 import org.acl.database.persistence.repositories.AuthorRepository;
 import org.acl.database.persistence.repositories.theater.PlayRepository;
+import org.acl.database.search.IndexWriterRegistry;
 import org.acl.database.search.SearchRepository;
 import org.acl.database.security.UserDetailsServiceImpl;
 import org.acl.database.services.exceptions.ItemNotFoundException;
 import org.acl.database.services.exceptions.PlayAlreadyExistsException;
 import org.acl.database.tools.ParseSourceDetails;
 import org.apache.log4j.Logger;
-import org.apache.lucene.document.Document;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -63,22 +63,16 @@ public class PlayService {
     }
 
     /**
-     * Adds / updates a lucene search doc for a play. Creates a separate doc for every DialogLines child object.
+     * Adds / updates a lucene search doc for a play. Creates a separate doc for every DialogLines child object; the
+     * play's docs are written in one batch and count as a single change against each index.
      *
      * @param play the Play to create a search doc for.
      */
     public static void addSearchDocument(final Play play) {
         LOGGER.debug("Updating play's search document...");
-        Document document = SearchRepository.parseCommonFields(new Document(), play);
-        SearchRepository.addDocument(document, TypeConstants.PLAY);
-        play.getActs()
-                .forEach(act -> act.getScenes()
-                        .forEach(scene -> {
-                            scene.getLines().forEach(dialogLines -> SearchRepository.addDocument(
-                                    DialogLinesAndStageDirectionService.parseSearchDocument(dialogLines, act.getId(),
-                                            scene.getId(), play), TypeConstants.DILI
-                            ));
-                        }));
+        SearchRepository.writePlay(play);
+        IndexWriterRegistry.changed(TypeConstants.PLAY);
+        IndexWriterRegistry.changed(TypeConstants.DILI);
     }
 
     /**
@@ -124,8 +118,7 @@ public class PlayService {
             ));
 
             // Update search document.
-            SearchRepository.updateDocument(play.getId().toString(),
-                    SearchRepository.parseCommonFields(new Document(), play), TypeConstants.PLAY);
+            SearchRepository.updatePlay(play);
 
             return new ResponseEntity<>(HttpStatus.NO_CONTENT);
         }
@@ -148,6 +141,7 @@ public class PlayService {
         if (principal.getName().equals(play.getCreatedBy()) || userDetailsService.userIsAdmin(principal)) {
             playRepository.delete(play);
             SearchRepository.deleteDocument(id.toString(), TypeConstants.PLAY);
+            SearchRepository.deleteChildren(id.toString(), TypeConstants.DILI);
             return new ResponseEntity<>(HttpStatus.NO_CONTENT);
         }
 
@@ -0,0 +1,82 @@
+package org.acl.database.search
+
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicInteger
+
+import scala.collection.JavaConverters._
+
+/**
+  * Tracks the progress of the background index synchronization so it can be reported while the app serves traffic.
+  *
+  * @author Josh Harkema
+  */
+object IndexProgress {
+  val PENDING = "PENDING"
+  val RUNNING = "RUNNING"
+  val DONE = "DONE"
+  val FAILED = "FAILED"
+
+  private val statuses = new ConcurrentHashMap[String, Status]()
+
+  private final class Status {
+    @volatile var state: String = PENDING
+    @volatile var error: String = _
+    val total = new AtomicInteger()
+    val processed = new AtomicInteger()
+  }
+
+  /**
+    * Marks an index as waiting to be synchronized.
+    *
+    * @param itemType the index type.
+    */
+  def pending(itemType: String): Unit = statuses.put(itemType, new Status)
+
+  /**
+    * @param itemType the index type.
+    * @param total    the number of items that have to be written or removed.
+    */
+  def start(itemType: String, total: Int): Unit = {
+    val status = getStatus(itemType)
+    status.total.set(total)
+    status.processed.set(0)
+    status.state = RUNNING
+  }
+
+  /**
+    * @param itemType the index type.
+    * @param count    the number of items just processed.
+    */
+  def advance(itemType: String, count: Int): Unit = getStatus(itemType).processed.addAndGet(count)
+
+  def finish(itemType: String): Unit = getStatus(itemType).state = DONE
+
+  def fail(itemType: String, e: Throwable): Unit = {
+    val status = getStatus(itemType)
+    status.error = e.getMessage
+    status.state = FAILED
+  }
+
+  /**
+    * @return true while any index is still waiting or being synchronized.
+    */
+  def isIndexing: Boolean = statuses.values.asScala.exists(s => s.state == PENDING || s.state == RUNNING)
+
+  /**
+    * @return the state, processed and total counts (and error if any) of every index, keyed by item type.
+    */
+  def snapshot(): java.util.Map[String, java.util.Map[String, AnyRef]] = {
+    val out = new java.util.TreeMap[String, java.util.Map[String, AnyRef]]()
+    statuses.asScala.foreach { case (itemType, status) =>
+      val details = new java.util.LinkedHashMap[String, AnyRef]()
+      details.put("state", status.state)
+      details.put("processed", Int.box(status.processed.get))
+      details.put("total", Int.box(status.total.get))
+      if (status.error != null) details.put("error", status.error)
+      out.put(itemType, details)
+    }
+    out
+  }
+
+  private def getStatus(itemType: String): Status = statuses.computeIfAbsent(itemType, (_: String) => new Status)
+}
@@ -0,0 +1,234 @@
+package org.acl.database.search
+
+import java.io.IOException
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.{ConcurrentHashMap, Executors, ScheduledExecutorService, TimeUnit}
+
+import org.acl.database.config.LuceneConfig
+import org.acl.database.services.search.SearchConstants
+import org.apache.log4j.Logger
+import org.apache.lucene.index.{IndexWriter, IndexWriterConfig}
+import org.apache.lucene.store.{AlreadyClosedException, FSDirectory}
+
+import scala.collection.JavaConverters._
+import scala.util.control.NonFatal
+
+/**
+  * Defines when buffered changes to an index are committed to disk.
+  */
+sealed trait CommitPolicy
+
+/**
+  * Commit an index as soon as maxPending changes have been buffered against it.
+  *
+  * @param maxPending the number of uncommitted changes allowed per index.
+  */
+final case class CountCommitPolicy(maxPending: Int) extends CommitPolicy
+
+/**
+  * Commit every index with buffered changes once per interval.
+  *
+  * @param intervalMs the time between commits in milliseconds.
+  */
+final case class TimedCommitPolicy(intervalMs: Long) extends CommitPolicy
+
+/**
+  * Holds a single long-lived IndexWriter per item type. IndexWriters are thread safe, so every service shares the
+  * same writer rather than opening (and locking) the index for each change.
+  *
+  * @author Josh Harkema
+  */
+object IndexWriterRegistry {
+  private val LOGGER = Logger.getLogger(IndexWriterRegistry.getClass)
+  private val INDEX_VERSION_KEY = "index_version"
+  private val writers = new ConcurrentHashMap[String, IndexWriter]()
+  private val pending = new ConcurrentHashMap[String, AtomicInteger]()
+  @volatile private var policy: CommitPolicy = TimedCommitPolicy(SearchConstants.COMMIT_INTERVAL_MS)
+  @volatile private var scheduler: Option[ScheduledExecutorService] = None
+
+  /**
+    * @param name       either "count" or "time" (the default.)
+    * @param intervalMs the commit interval used by the time based policy.
+    * @param maxPending the change limit used by the count based policy.
+    * @return the matching CommitPolicy.
+    */
+  def commitPolicy(name: String, intervalMs: Long, maxPending: Int): CommitPolicy = {
+    if (name != null && name.equalsIgnoreCase("count")) CountCommitPolicy(maxPending)
+    else TimedCommitPolicy(intervalMs)
+  }
+
+  /**
+    * Opens a writer for every item type and starts the commit schedule (if the policy is time based.)
+    *
+    * @param commitPolicy the policy to use.
+    * @param itemTypes    the item types to open writers for.
+    */
+  def open(commitPolicy: CommitPolicy, itemTypes: Array[String]): Unit = synchronized {
+    LOGGER.debug(s"[SEARCH] :::::: Opening index writers with commit policy: $commitPolicy")
+    policy = commitPolicy
+    itemTypes.foreach(getWriter)
+    commitPolicy match {
+      case TimedCommitPolicy(intervalMs) if scheduler.isEmpty =>
+        val executor = Executors.newSingleThreadScheduledExecutor((r: Runnable) => {
+          val thread = new Thread(r, "lucene_commit")
+          thread.setDaemon(true)
+          thread
+        })
+        executor.scheduleWithFixedDelay(() => commitAll(), intervalMs, intervalMs, TimeUnit.MILLISECONDS)
+        scheduler = Some(executor)
+      case _ =>
+    }
+  }
+
+  /**
+    * @param itemType the index type.
+    * @return the shared writer for itemType, opened on first use.
+    */
+  def getWriter(itemType: String): IndexWriter = {
+    val writer = writers.computeIfAbsent(itemType, (t: String) => openWriter(t))
+    if (writer.isOpen) writer
+    else replaceWriter(itemType, writer)
+  }
+
+  /**
+    * Runs a write against the shared writer for itemType. If the writer is closed underneath it (a tragic exception
+    * on another thread), the write is retried against the replacement writer. A closed writer has dropped its
+    * uncommitted changes, so the whole write is retried.
+    *
+    * @param itemType the index type.
+    * @param fn       the write to run.
+    * @tparam T the fn return type.
+    * @return the fn results.
+    */
+  def withWriter[T](itemType: String)(fn: IndexWriter => T): T =
+    writeWithRetry(itemType, SearchRepository.retryAttempts, fn)
+
+  private def writeWithRetry[T](itemType: String, attempts: Int, fn: IndexWriter => T): T = {
+    val writer = getWriter(itemType)
+    try {
+      fn(writer)
+    } catch {
+      case e: AlreadyClosedException if attempts > 1 =>
+        LOGGER.error(s"[SEARCH] :::::: '$itemType' index writer closed during a write, retrying: ${e.getMessage}")
+        writeWithRetry(itemType, attempts - 1, fn)
+    }
+  }
+
+  /**
+    * A tragic exception closed the writer: open a new one, point the searchers at it (see SearcherRegistry) and
+    * close the old writer's directory. Only one thread replaces a writer; the others get its replacement.
+    */
+  private def replaceWriter(itemType: String, closed: IndexWriter): IndexWriter = synchronized {
+    val current = writers.get(itemType)
+    if (current != null && !(current eq closed) && current.isOpen) current
+    else {
+      LOGGER.error(s"[SEARCH] :::::: '$itemType' index writer was closed, reopening.")
+      Option(closed.getTragicException).foreach(LOGGER.error(_))
+      val writer = openWriter(itemType)
+      writers.put(itemType, writer)
+      SearcherRegistry.writerReplaced(itemType, writer)
+      try {
+        closed.getDirectory.close()
+      } catch {
+        case e: IOException =>
+          LOGGER.error(s"[SEARCH] :::::: Error closing the old '$itemType' index directory.")
+          LOGGER.error(e)
+      }
+      writer
+    }
+  }
+
+  /**
+    * Records a buffered change against an index and commits it if the count policy limit is reached.
+    *
+    * @param itemType the index type that changed.
+    */
+  def changed(itemType: String): Unit = {
+    val count = pending.computeIfAbsent(itemType, (_: String) => new AtomicInteger()).incrementAndGet()
+    policy match {
+      case CountCommitPolicy(maxPending) if count >= maxPending => commit(itemType)
+      case _ =>
+    }
+  }
+
+  /**
+    * Commits all buffered changes for an index.
+    *
+    * @param itemType the index type to commit.
+    */
+  def commit(itemType: String): Unit = {
+    Option(pending.get(itemType)).foreach(_.set(0))
+    withWriter(itemType)(_.commit())
+  }
+
+  /**
+    * @param itemType the index type.
+    * @return the document structure version recorded by the last commit, or null if none was recorded.
+    */
+  def getIndexVersion(itemType: String): String = {
+    Option(getWriter(itemType).getLiveCommitData)
+      .flatMap(_.asScala.find(_.getKey == INDEX_VERSION_KEY))
+      .map(_.getValue)
+      .orNull
+  }
+
+  /**
+    * Records the document structure version of an index. Written to disk with the next commit.
+    *
+    * @param itemType the index type.
+    * @param version  the version to record.
+    */
+  def setIndexVersion(itemType: String, version: String): Unit = {
+    withWriter(itemType)(
+      _.setLiveCommitData(java.util.Collections.singletonMap(INDEX_VERSION_KEY, version).entrySet))
+  }
+
+  /**
+    * Commits every index with buffered changes. Errors are logged rather than thrown so the schedule keeps running.
+    */
+  def commitAll(): Unit = {
+    pending.asScala.foreach { case (itemType, count) =>
+      if (count.get > 0) {
+        try {
+          commit(itemType)
+        } catch {
+          // Anything escaping a scheduleWithFixedDelay task cancels the schedule, i.e. AlreadyClosedException after a
+          // tragic event, so every failure is logged and the remaining types are still committed.
+          case NonFatal(e) =>
+            LOGGER.error(s"[SEARCH] :::::: Error committing '$itemType' index.")
+            LOGGER.error(e)
+        }
+      }
+    }
+  }
+
+  /**
+    * Commits and closes every writer. Called on application shutdown.
+    */
+  def close(): Unit = synchronized {
+    LOGGER.debug("[SEARCH] :::::: Closing index writers...")
+    scheduler.foreach(_.shutdown())
+    scheduler = None
+    writers.asScala.foreach { case (itemType, writer) =>
+      try {
+        writer.close() // Commits by default.
+        writer.getDirectory.close()
+      } catch {
+        case e: IOException =>
+          LOGGER.error(s"[SEARCH] :::::: Error closing '$itemType' index writer.")
+          LOGGER.error(e)
+      }
+    }
+    writers.clear()
+    pending.clear()
+  }
+
+  private def openWriter(itemType: String): IndexWriter = {
+    SearchRepository.retry(SearchRepository.retryAttempts) {
+      new IndexWriter(
+        FSDirectory.open(SearchConstants.DOCS_PATH.resolve(itemType)),
+        new IndexWriterConfig(LuceneConfig.getAnalyzer)
+      )
+    }
+  }
+}
@@ -0,0 +1,123 @@
+package org.acl.database.search
+
+import java.util.Locale
+import java.util.concurrent.ConcurrentHashMap
+
+import org.acl.database.persistence.models.TypeConstants
+import org.acl.database.services.search.SearchConstants
+import org.apache.log4j.Logger
+
+import scala.collection.JavaConverters._
+
+/**
+  * An in-memory index of poem titles by author last name, used to reject duplicate poems without opening a searcher.
+  * Titles are reduced to a set of words (lowercased, punctuation, possessives and a few stop words removed) and two
+  * titles by the same author are duplicates when their word sets are at least DUPLICATE_TITLE_SIMILARITY similar
+  * (Jaccard), so "Ode to a Nightingale" matches "Ode on a Nightingale" but "Sonnet 18" does not match "Sonnet 19".
+  * Titles of only stop words are only duplicates of the same normalized title, and untitled poems are never
+  * duplicates.
+  *
+  * Loaded from the poem index once it is synchronized, then kept up to date by PoemService.
+  *
+  * @author Josh Harkema
+  */
+object PoemDuplicates {
+  private val LOGGER = Logger.getLogger(PoemDuplicates.getClass)
+  private val STOP_WORDS = Set("a", "an", "and", "the", "of", "on", "in", "to")
+  private val FIELDS = Set(SearchConstants.ID, SearchConstants.TITLE, SearchConstants.AUTHOR_LAST_NAME).asJava
+  private val byAuthor = new ConcurrentHashMap[String, ConcurrentHashMap[String, Title]]()
+  private val authorOf = new ConcurrentHashMap[String, String]()
+  @volatile private var loaded = false
+
+  /**
+    * A title reduced for comparison.
+    *
+    * @param normalized every word of the title, lowercased and without punctuation or possessives.
+    * @param words      the words of normalized that are not stop words.
+    */
+  private case class Title(normalized: String, words: Set[String])
+
+  /**
+    * Adds every poem in the poem index. Safe to call while poems are being added.
+    */
+  def load(): Unit = {
+    SearcherRegistry.withSearcher(TypeConstants.POEM) { searcher =>
+      searcher.getIndexReader.leaves.asScala.foreach { context =>
+        val reader = context.reader
+        val liveDocs = reader.getLiveDocs
+        for (doc <- 0 until reader.maxDoc if liveDocs == null || liveDocs.get(doc)) {
+          val document = reader.document(doc, FIELDS)
+          put(document.get(SearchConstants.ID), document.get(SearchConstants.TITLE),
+            document.get(SearchConstants.AUTHOR_LAST_NAME))
+        }
+      }
+    }
+    loaded = true
+    LOGGER.debug(s"[SEARCH] :::::: Loaded ${authorOf.size} poem titles for duplicate detection.")
+  }
+
+  /**
+    * @return true once load() has finished.
+    */
+  def isLoaded: Boolean = loaded
+
+  /**
+    * Adds or replaces a poem.
+    *
+    * @param id       the poem's db id.
+    * @param title    the poem's title.
+    * @param lastName the poem's author's last name.
+    */
+  def put(id: String, title: String, lastName: String): Unit = {
+    remove(id)
+    val author = authorKey(lastName)
+    authorOf.put(id, author)
+    byAuthor.computeIfAbsent(author, (_: String) => new ConcurrentHashMap[String, Title]()).put(id, reduce(title))
+  }
+
+  /**
+    * @param id the db id of a deleted poem.
+    */
+  def remove(id: String): Unit = {
+    val author = authorOf.remove(id)
+    if (author != null) {
+      val titles = byAuthor.get(author)
+      if (titles != null) titles.remove(id)
+    }
+  }
+
+  /**
+    * @param title    the title of a new poem.
+    * @param lastName the last name of its author.
+    * @return true if the author already has a poem with the same or a similar title.
+    */
+  def exists(title: String, lastName: String): Boolean = {
+    val titles = byAuthor.get(authorKey(lastName))
+    if (titles == null) return false
+    val candidate = reduce(title)
+    titles.values.asScala.exists(similar(candidate, _))
+  }
+
+  /**
+    * @param title a title.
+    * @param other another title.
+    * @return true if the titles are the same or similar, by the same measure as exists().
+    */
+  def similarTitles(title: String, other: String): Boolean = similar(reduce(title), reduce(other))
+
+  private def authorKey(lastName: String): String =
+    if (lastName == null) "" else lastName.trim.toLowerCase(Locale.ROOT)
+
+  private def reduce(title: String): Title = {
+    val all =
+      if (title == null) Array.empty[String]
+      else title.toLowerCase(Locale.ROOT).replaceAll("['’]s\\b", "").split("[^\\p{L}\\p{N}]+").filter(_.nonEmpty)
+    Title(all.mkString(" "), all.filterNot(STOP_WORDS.contains).toSet)
+  }
+
+  private def similar(a: Title, b: Title): Boolean =
+    if (a.normalized.isEmpty || b.normalized.isEmpty) false // Untitled poems are never duplicates.
+    else if (a.words.isEmpty || b.words.isEmpty) a.normalized == b.normalized
+    else (a.words intersect b.words).size.toDouble / (a.words union b.words).size >=
+      SearchConstants.DUPLICATE_TITLE_SIMILARITY
+}
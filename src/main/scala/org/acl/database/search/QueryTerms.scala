@@ -0,0 +1,67 @@
+package org.acl.database.search
+
+import org.acl.database.config.LuceneConfig
+import org.acl.database.services.search.SearchConstants
+import org.apache.lucene.index.Term
+import org.apache.lucene.search.{MatchNoDocsQuery, Query, TermQuery}
+import org.apache.lucene.util.{BytesRef, QueryBuilder}
+
+/**
+  * Turns search strings into what is matched against the indexes, the same way each field was indexed.
+  *
+  * Case handling: keyword fields (ids, period, act and scene numbers) are indexed untokenized as StringFields, so
+  * they are matched on the trimmed value exactly and case sensitively ("Romantic" does not match "romantic".) Every
+  * other field is analyzed, so search strings go through the field's analyzer and are lowercased (and, for text,
+  * stemmed and stripped of stop words) exactly as the indexed values were.
+  *
+  * @author Josh Harkema
+  */
+object QueryTerms {
+  private val keywordFields = Set(
+    SearchConstants.ID,
+    SearchConstants.PARENT_ID,
+    SearchConstants.PERIOD,
+    SearchConstants.ACT_NUMBER,
+    SearchConstants.SCENE_NUMBER
+  )
+  private lazy val queryBuilder = new QueryBuilder(LuceneConfig.getAnalyzer)
+
+  /**
+    * @param in a search string from a request (may be null.)
+    * @return the string trimmed with runs of whitespace collapsed to a single space; case is kept.
+    */
+  def normalize(in: String): String = if (in == null) "" else in.trim.replaceAll("\\s+", " ")
+
+  /**
+    * @param field a field name.
+    * @return true if the field is indexed untokenized (and matched case sensitively.)
+    */
+  def isKeyword(field: String): Boolean = keywordFields.contains(field)
+
+  /**
+    * Removed stop words leave position gaps in phrases.
+    *
+    * @param field the field to search.
+    * @param in    the search string.
+    * @return a TermQuery for a keyword field or a single token, a PhraseQuery (with SLOP) for several, and a
+    *         MatchNoDocsQuery if the analyzer removes every token.
+    */
+  def fieldQuery(field: String, in: String): Query = {
+    val value = normalize(in)
+    if (isKeyword(field)) new TermQuery(new Term(field, value))
+    else Option(queryBuilder.createPhraseQuery(field, value, SearchConstants.SLOP))
+      .getOrElse(new MatchNoDocsQuery("No terms in: " + in))
+  }
+
+  /**
+    * Fuzzy, prefix and wildcard queries match against indexed terms, so a word is only normalized (lowercased) by
+    * the field's analyzer, never tokenized or stemmed.
+    *
+    * @param field the field to search.
+    * @param word  a single word of the search string.
+    * @return the term to match.
+    */
+  def term(field: String, word: String): Term = {
+    new Term(field, if (isKeyword(field)) new BytesRef(word) else LuceneConfig.getAnalyzer.normalize(field, word))
+  }
+}
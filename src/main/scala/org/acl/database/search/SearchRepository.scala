@@ -1,16 +1,17 @@
 package org.acl.database.search
 
-import java.nio.file.Paths
+import java.util.{Calendar, Date}
 
 import org.acl.database.config.LuceneConfig
 import org.acl.database.persistence.models.TypeConstants
-import org.acl.database.persistence.models.base.{Item, Poem, Section, ShortStory}
-import org.acl.database.persistence.models.theater.Play
+import org.acl.database.persistence.models.base._
+import org.acl.database.persistence.models.theater.{DialogLines, Play}
 import org.acl.database.services.search.SearchConstants
-import org.apache.lucene.document.{Document, Field, StringField, TextField}
+import org.apache.lucene.document._
+import org.apache.lucene.facet.FacetsConfig
+import org.apache.lucene.facet.sortedset.SortedSetDocValuesFacetField
 import org.apache.lucene.index._
-import org.apache.lucene.search.{IndexSearcher, TermQuery}
-import org.apache.lucene.store.FSDirectory
+import org.apache.lucene.util.BytesRef
 
 import scala.collection.JavaConverters._
 
@@ -21,6 +22,7 @@ import scala.collection.JavaConverters._
   */
 object SearchRepository {
   val retryAttempts = 3
+  private val facetsConfig = new FacetsConfig()
 
   /**
     * Attempts to run a function n times before rethrowing the exception and failing. This is 100% thread
@@ -51,12 +53,8 @@ object SearchRepository {
     * @param itemType the item type of the document.
     */
   def addDocument(document: Document, itemType: String): Unit = {
-    retry(retryAttempts) {
-      val writer = getWriter(itemType)
-      writer.addDocument(document)
-      writer.commit()
-      writer.close()
-    }
+    IndexWriterRegistry.withWriter(itemType)(_.addDocument(document))
+    IndexWriterRegistry.changed(itemType)
   }
 
   /**
@@ -66,22 +64,28 @@ object SearchRepository {
     * @param itemType  the type of item the documents are comprised of.
     */
   def addDocuments(documents: java.util.List[Document], itemType: String): Unit = {
-    retry(retryAttempts) {
-      val writer = getWriter(itemType)
+    IndexWriterRegistry.withWriter(itemType) { writer =>
       writer.deleteAll()
       documents.asScala.foreach(writer.addDocument(_))
-      writer.commit()
-      writer.close()
     }
+    IndexWriterRegistry.commit(itemType)
+    SearcherRegistry.refresh(itemType)
+  }
+
+  /**
+    * Adds new documents to an index in one call. Nothing is committed; bulk imports commit once when they finish.
+    *
+    * @param documents the documents to add.
+    * @param itemType  the type of item the documents are comprised of.
+    */
+  def appendDocuments(documents: java.util.List[Document], itemType: String): Unit = {
+    IndexWriterRegistry.withWriter(itemType)(_.addDocuments(documents))
   }
 
   def clearIndex(itemType: String): Unit = {
-    retry(retryAttempts) {
-      val writer = getWriter(itemType)
-      writer.deleteAll()
-      writer.commit()
-      writer.close()
-    }
+    IndexWriterRegistry.withWriter(itemType)(_.deleteAll())
+    IndexWriterRegistry.commit(itemType)
+    SearcherRegistry.refresh(itemType)
   }
 
   /**
@@ -91,12 +95,8 @@ object SearchRepository {
     * @param itemType the type of the item to delete.
     */
   def deleteDocument(docId: String, itemType: String): Unit = {
-    retry(retryAttempts) {
-      val writer = getWriter(itemType)
-      writer.deleteDocuments(new Term(SearchConstants.ID, docId))
-      writer.commit()
-      writer.close()
-    }
+    IndexWriterRegistry.withWriter(itemType)(_.deleteDocuments(new Term(SearchConstants.ID, docId)))
+    IndexWriterRegistry.changed(itemType)
   }
 
   /**
@@ -105,12 +105,7 @@ object SearchRepository {
     * @param poem the new poem data.
     */
   def updatePoem(poem: Poem): Unit = {
-    val toUpdate = parseCommonFields(getDocument(poem.getId.toString, TypeConstants.POEM), poem)
-    toUpdate.add(new TextField(SearchConstants.POEM_FORM, poem.getForm, Field.Store.YES))
-    toUpdate.add(new TextField(SearchConstants.TOPIC_MODEL, poem.getTopicModel.toString, Field.Store.YES))
-    toUpdate.removeField(SearchConstants.TEXT)
-    toUpdate.add(LuceneConfig.getTextField(String.join(SearchConstants.LINE_DELIMITER_POEM, poem.getText)))
-    updateDocument(poem.getId.toString, toUpdate, TypeConstants.POEM)
+    updateDocument(poem.getId.toString, poemDocument(poem), TypeConstants.POEM)
   }
 
   /**
@@ -119,46 +114,23 @@ object SearchRepository {
     * @param section the new section data.
     */
   def updateSection(section: Section): Unit = {
-    val toUpdate = parseCommonFields(getDocument(section.getId.toString, TypeConstants.SECTION), section)
-    toUpdate.add(new StringField(SearchConstants.PARENT_ID, section.getParentId.toString, Field.Store.YES))
-    toUpdate.add(new TextField(SearchConstants.PARENT_TITLE, section.getParentTitle, Field.Store.YES))
-    toUpdate.add(LuceneConfig.getTextField(section.getText))
-    updateDocument(section.getId.toString, toUpdate, TypeConstants.SECTION)
-  }
-
-  private def getDocument(docId: String, docType: String): Document = {
-    val reader = getReader(docType)
-    val searcher = new IndexSearcher(reader)
-    val docs = searcher.search(new TermQuery(new Term(SearchConstants.ID, docId)), 1)
-    searcher.doc(docs.scoreDocs(0).doc)
+    updateDocument(section.getId.toString, sectionDocument(section), TypeConstants.SECTION)
   }
 
   /**
-    * @param itemType the index type.
-    * @return an open IndexReader.
+    * Removes every document whose parent is parentId (i.e. a play's dialog lines.)
+    *
+    * @param parentId the db id of the parent item.
+    * @param itemType the item type of the child documents.
     */
-  def getReader(itemType: String): IndexReader = {
-    DirectoryReader.open(FSDirectory.open(Paths.get(getPath(itemType))))
+  def deleteChildren(parentId: String, itemType: String): Unit = {
+    IndexWriterRegistry.withWriter(itemType)(_.deleteDocuments(new Term(SearchConstants.PARENT_ID, parentId)))
+    IndexWriterRegistry.changed(itemType)
   }
 
   def updateDocument(docId: String, document: Document, itemType: String): Unit = {
-    retry(retryAttempts) {
-      val writer = getWriter(itemType)
-      writer.updateDocument(new Term(SearchConstants.ID, docId), document)
-      writer.commit()
-      writer.close()
-    }
-  }
-
-  private def getWriter(itemType: String): IndexWriter = {
-    new IndexWriter(
-      FSDirectory.open(Paths.get(getPath(itemType))),
-      new IndexWriterConfig(LuceneConfig.getAnalyzer)
-    )
-  }
-
-  private def getPath(itemType: String): String = {
-    "%s/%s".format(SearchConstants.DOCS_PATH, itemType)
+    IndexWriterRegistry.withWriter(itemType)(_.updateDocument(new Term(SearchConstants.ID, docId), document))
+    IndexWriterRegistry.changed(itemType)
   }
 
   /**
@@ -170,35 +142,209 @@ object SearchRepository {
     */
   def parseCommonFields(document: Document, item: Item): Document = {
     document.add(new StringField(SearchConstants.ID, item.getId.toString, Field.Store.YES))
+    parseLastModified(document, item)
     document.add(new TextField(SearchConstants.TITLE, item.getTitle, Field.Store.YES))
     if (item.getCategory != null) {
       document.add(new TextField(SearchConstants.CATEGORY, item.getCategory, Field.Store.YES))
     }
+    addSortable(document, SearchConstants.CATEGORY, item.getCategory)
     document.add(new TextField(SearchConstants.AUTHOR_FIRST_NAME, item.getAuthor.getFirstName, Field.Store.YES))
     document.add(new TextField(SearchConstants.AUTHOR_LAST_NAME, item.getAuthor.getLastName, Field.Store.YES))
+    addSortable(document, SearchConstants.AUTHOR_LAST_NAME, item.getAuthor.getLastName)
     if (item.getPeriod != null) { // Some items don't have periods.
       document.add(new StringField(SearchConstants.PERIOD, item.getPeriod, Field.Store.YES))
     }
+    addSortable(document, SearchConstants.PERIOD, item.getPeriod)
     if (item.getPublicDomain != null) { // Some items do not have this toggled.
       document.add(new TextField(SearchConstants.IS_PUBLIC, item.getPublicDomain.toString, Field.Store.YES))
     }
+    if (item.getDateOfPublication != null) { // Points for range queries, doc values for sorting.
+      val year = yearOf(item.getDateOfPublication)
+      document.add(new IntPoint(SearchConstants.YEAR, year))
+      document.add(new NumericDocValuesField(SearchConstants.YEAR, year))
+      document.add(new StoredField(SearchConstants.YEAR, year))
+    }
+    if (item.getJournalVolume > 0) { // 0 means not set.
+      document.add(new IntPoint(SearchConstants.JOURNAL_VOL, item.getJournalVolume))
+      document.add(new NumericDocValuesField(SearchConstants.JOURNAL_VOL, item.getJournalVolume))
+    }
+    document
+  }
+
+  /**
+    * Adds a field's value as doc values, for sorting (SortedDocValuesField under the field's own name) and for facet
+    * counts (SortedSetDocValuesFacetField with the field name as the dimension.) Null and empty values are skipped.
+    * Documents with facet fields must go through withFacets before they are written.
+    *
+    * @param document the document to add the fields to.
+    * @param field    the field name.
+    * @param value    the raw (unanalyzed) value.
+    */
+  def addSortable(document: Document, field: String, value: String): Unit = {
+    if (value != null && !value.isEmpty) {
+      document.add(new SortedDocValuesField(field, new BytesRef(value)))
+      document.add(new SortedSetDocValuesFacetField(field, value))
+    }
+  }
+
+  /**
+    * @param document a document with facet fields.
+    * @return the document as it must be indexed (facet fields translated to the shared facet doc values field.)
+    */
+  def withFacets(document: Document): Document = facetsConfig.build(document)
+
+  private def yearOf(date: Date): Int = {
+    val calendar = Calendar.getInstance()
+    calendar.setTime(date)
+    calendar.get(Calendar.YEAR)
+  }
+
+  /**
+    * Adds the last modified date used to detect stale documents at startup. Items that have never been audited are
+    * stored as 0.
+    *
+    * @param document  the document to add the field to.
+    * @param auditable the item with the date to add.
+    * @return the document with the last modified date added.
+    */
+  def parseLastModified(document: Document, auditable: Auditable[_]): Document = {
+    val modified = lastModified(auditable.getLastModifiedDate)
+    document.add(new NumericDocValuesField(SearchConstants.LAST_MODIFIED, modified))
+    document.add(new StoredField(SearchConstants.LAST_MODIFIED, modified))
+    document
+  }
+
+  /**
+    * @param date a last modified date, may be null.
+    * @return the date as it is stored in the index.
+    */
+  def lastModified(date: Date): Long = if (date == null) 0L else date.getTime
+
+  def poemDocument(poem: Poem): Document = {
+    val document = parseCommonFields(new Document(), poem)
+    document.add(new TextField(SearchConstants.POEM_FORM, poem.getForm, Field.Store.YES))
+    addSortable(document, SearchConstants.POEM_FORM, poem.getForm)
+    // :todo: this requires its own custom field.
+    document.add(new TextField(SearchConstants.TOPIC_MODEL, String.valueOf(poem.getTopicModel), Field.Store.YES))
+    document.add(LuceneConfig.getTextField(String.join(SearchConstants.LINE_DELIMITER_POEM, poem.getText)))
+    withFacets(document)
+  }
+
+  def sectionDocument(section: Section): Document = {
+    val document = parseCommonFields(new Document(), section)
+    document.add(new StringField(SearchConstants.PARENT_ID, section.getParentId.toString, Field.Store.YES))
+    document.add(new TextField(SearchConstants.PARENT_TITLE, section.getParentTitle, Field.Store.YES))
+    document.add(LuceneConfig.getTextField(section.getText))
+    withFacets(document)
+  }
+
+  def shortStoryDocument(shortStory: ShortStory): Document = {
+    val document = parseCommonFields(new Document(), shortStory)
+    document.add(LuceneConfig.getTextField(shortStory.getText))
+    withFacets(document)
+  }
+
+  def authorDocument(author: Author): Document = {
+    val document = parseLastModified(new Document(), author)
+    document.add(new StringField(SearchConstants.ID, String.valueOf(author.getId), Field.Store.YES))
+    document.add(new TextField(SearchConstants.AUTHOR_FIRST_NAME, author.getFirstName, Field.Store.YES))
+    document.add(new TextField(SearchConstants.AUTHOR_LAST_NAME, author.getLastName, Field.Store.YES))
+    document
+  }
+
+  def playDocument(play: Play): Document = withFacets(parseCommonFields(new Document(), play))
+
+  /**
+    * Parses a DialogLines object onto a Lucene search document.
+    *
+    * @param dialogLines the object to parse.
+    * @param actId       the parent act's db ID.
+    * @param sceneId     the parent scene's db ID.
+    * @param play        the parent play.
+    * @return a Lucene doc with the details added.
+    */
+  def dialogLinesDocument(dialogLines: DialogLines, actId: java.lang.Long, sceneId: java.lang.Long,
+                          play: Play): Document = {
+    val document = new Document()
+    document.add(new StringField(SearchConstants.ID, dialogLines.getId.toString, Field.Store.YES))
+    document.add(new StringField(SearchConstants.PARENT_ID, play.getId.toString, Field.Store.YES))
+    document.add(new StringField(SearchConstants.ACT_NUMBER, actId.toString, Field.Store.YES))
+    document.add(new StringField(SearchConstants.SCENE_NUMBER, sceneId.toString, Field.Store.YES))
+    document.add(new StringField(SearchConstants.CATEGORY, TypeConstants.DILI, Field.Store.YES))
+    document.add(new TextField(SearchConstants.TITLE, play.getTitle, Field.Store.YES))
+    document.add(new TextField(SearchConstants.AUTHOR_FIRST_NAME, play.getAuthor.getFirstName, Field.Store.YES))
+    document.add(new TextField(SearchConstants.AUTHOR_LAST_NAME, play.getAuthor.getLastName, Field.Store.YES))
+    val actor = dialogLines.getActor
+    if (actor.getFirstName != null) {
+      document.add(new TextField(SearchConstants.ACTOR_FIRST_NAME, actor.getFirstName, Field.Store.YES))
+    }
+    if (actor.getMiddleName != null) {
+      document.add(new TextField(SearchConstants.ACTOR_MIDDLE_NAME, actor.getMiddleName, Field.Store.YES))
+    }
+    if (actor.getLastName != null) {
+      document.add(new TextField(SearchConstants.ACTOR_LAST_NAME, actor.getLastName, Field.Store.YES))
+    }
+    document.add(LuceneConfig.getTextField(String.join("\n", dialogLines.getBody)))
     document
   }
 
+  /**
+    * Replaces the play document and every dialog lines document for a play. All of the play's dialog lines are
+    * built up front and written with a single addDocuments call; nothing is committed.
+    *
+    * @param play the play to index.
+    */
+  def writePlay(play: Play): Unit = {
+    val playId = play.getId.toString
+    val lines = new java.util.ArrayList[Document]()
+    play.getActs.asScala.foreach(act =>
+      act.getScenes.asScala.foreach(scene =>
+        scene.getLines.asScala.foreach(dialogLines =>
+          lines.add(dialogLinesDocument(dialogLines, act.getId, scene.getId, play)))))
+
+    IndexWriterRegistry.withWriter(TypeConstants.DILI) { linesWriter =>
+      linesWriter.deleteDocuments(new Term(SearchConstants.PARENT_ID, playId))
+      linesWriter.addDocuments(lines)
+    }
+    IndexWriterRegistry.withWriter(TypeConstants.PLAY)(_.updateDocument(new Term(SearchConstants.ID, playId),
+      playDocument(play)))
+  }
+
   /**
     * Updates and existing short story.
     *
     * @param shortStory the new short story data.
     */
   def updateShortStory(shortStory: ShortStory): Unit = {
-    val toUpdate = parseCommonFields(getDocument(shortStory.getId.toString, TypeConstants.SHORT_STORY), shortStory)
-    toUpdate.removeField(SearchConstants.TEXT)
-    toUpdate.add(LuceneConfig.getTextField(shortStory.getText))
-    updateDocument(shortStory.getId.toString, toUpdate, TypeConstants.SHORT_STORY)
+    updateDocument(shortStory.getId.toString, shortStoryDocument(shortStory), TypeConstants.SHORT_STORY)
   }
 
   def updatePlay(play: Play): Unit = {
-    val toUpdate = parseCommonFields(getDocument(play.getId.toString, TypeConstants.PLAY), play)
-    updateDocument(play.getId.toString, toUpdate, TypeConstants.PLAY)
+    updateDocument(play.getId.toString, playDocument(play), TypeConstants.PLAY)
+  }
+
+  /**
+    * Reads the id and last modified date of every live document in an index. Documents written before the last
+    * modified date was indexed are reported as 0, so they always look stale.
+    *
+    * @param itemType the index to read.
+    * @return a mutable map of document id to last modified date.
+    */
+  def getIndexedVersions(itemType: String): java.util.Map[String, java.lang.Long] = {
+    SearcherRegistry.refresh(itemType)
+    SearcherRegistry.withSearcher(itemType) { searcher =>
+      val versions = new java.util.HashMap[String, java.lang.Long]()
+      val fieldsToLoad = java.util.Collections.singleton(SearchConstants.ID)
+      searcher.getIndexReader.leaves.asScala.foreach { context =>
+        val reader = context.reader
+        val liveDocs = reader.getLiveDocs
+        val modified = DocValues.getNumeric(reader, SearchConstants.LAST_MODIFIED)
+        for (doc <- 0 until reader.maxDoc if liveDocs == null || liveDocs.get(doc)) {
+          val id = reader.document(doc, fieldsToLoad).get(SearchConstants.ID)
+          versions.put(id, if (modified.advanceExact(doc)) modified.longValue else 0L)
+        }
+      }
+      versions
+    }
   }
 }
@@ -0,0 +1,215 @@
+package org.acl.database.search
+
+import java.io.IOException
+import java.util.concurrent.atomic.AtomicLong
+import java.util.concurrent.{ConcurrentHashMap, Executors, ScheduledExecutorService, TimeUnit}
+
+import org.apache.log4j.Logger
+import org.apache.lucene.index.IndexWriter
+import org.acl.database.services.search.SearchConstants
+import org.apache.lucene.search.SearcherLifetimeManager.PruneByAge
+import org.apache.lucene.search.{IndexSearcher, ReferenceManager, SearcherLifetimeManager, SearcherManager}
+
+import scala.collection.JavaConverters._
+import scala.util.control.NonFatal
+
+/**
+  * Holds a near-real-time SearcherManager per item type. Each manager is tied to the shared IndexWriter for its
+  * index, so searches see buffered changes without reopening the index from disk. Managers are refreshed in the
+  * background; queries acquire a searcher and MUST release it when finished.
+  *
+  * Searchers can also be pinned (see pin()) so that paged searches keep reading the same point-in-time view of an
+  * index across requests. Pinned searchers are kept until CURSOR_TTL_SECONDS after a newer one was opened.
+  *
+  * @author Josh Harkema
+  */
+object SearcherRegistry {
+  private val LOGGER = Logger.getLogger(SearcherRegistry.getClass)
+  private val managers = new ConcurrentHashMap[String, SearcherManager]()
+  private val generations = new ConcurrentHashMap[String, AtomicLong]()
+  private val lifetimes = new ConcurrentHashMap[String, SearcherLifetimeManager]()
+  @volatile private var refresher: Option[ScheduledExecutorService] = None
+
+  /**
+    * Opens a SearcherManager for every item type and starts the background refresh.
+    *
+    * @param refreshMs the time between refreshes in milliseconds.
+    * @param itemTypes the item types to open searchers for.
+    */
+  def open(refreshMs: Long, itemTypes: Array[String]): Unit = synchronized {
+    LOGGER.debug(s"[SEARCH] :::::: Opening searcher managers, refreshing every ${refreshMs}ms.")
+    itemTypes.foreach(t => managers.computeIfAbsent(t, (itemType: String) =>
+      track(itemType, new SearcherManager(IndexWriterRegistry.getWriter(itemType), null))))
+    if (refresher.isEmpty) {
+      val executor = Executors.newSingleThreadScheduledExecutor((r: Runnable) => {
+        val thread = new Thread(r, "lucene_refresh")
+        thread.setDaemon(true)
+        thread
+      })
+      executor.scheduleWithFixedDelay(() => refreshAll(), refreshMs, refreshMs, TimeUnit.MILLISECONDS)
+      refresher = Some(executor)
+    }
+  }
+
+  /**
+    * @param itemType the index type.
+    * @return an IndexSearcher; return it with release() when finished.
+    */
+  @throws[IOException]
+  def acquire(itemType: String): IndexSearcher = getManager(itemType).acquire()
+
+  /**
+    * Returns a searcher obtained from acquire(). Null searchers are ignored.
+    *
+    * @param itemType the index type the searcher was acquired from.
+    * @param searcher the searcher to release.
+    */
+  @throws[IOException]
+  def release(itemType: String, searcher: IndexSearcher): Unit = {
+    if (searcher != null) getManager(itemType).release(searcher)
+  }
+
+  /**
+    * Keeps an acquired searcher open so it can be acquired again later by its token. Pinning the same reader version
+    * twice returns the same token.
+    *
+    * @param itemType the index type the searcher was acquired from.
+    * @param searcher the searcher to keep; it must still be released as usual.
+    * @return the token to acquire it with (the reader version.)
+    */
+  @throws[IOException]
+  def pin(itemType: String, searcher: IndexSearcher): Long =
+    lifetimes.computeIfAbsent(itemType, (_: String) => new SearcherLifetimeManager).record(searcher)
+
+  /**
+    * @param itemType the index type.
+    * @param token    a token from pin().
+    * @return the pinned searcher (return it with release() when finished), or null if it has expired.
+    */
+  def acquirePinned(itemType: String, token: Long): IndexSearcher =
+    Option(lifetimes.get(itemType)).map(_.acquire(token)).orNull
+
+  /**
+    * Runs a function with an acquired searcher, releasing it afterwards.
+    *
+    * @param itemType the index type.
+    * @param fn       the function to run.
+    * @tparam T the fn return type.
+    * @return the fn results.
+    */
+  def withSearcher[T](itemType: String)(fn: IndexSearcher => T): T = {
+    val searcher = acquire(itemType)
+    try {
+      fn(searcher)
+    } finally {
+      release(itemType, searcher)
+    }
+  }
+
+  /**
+    * The generation of an index goes up every time a refresh makes changes visible to searchers. Read it BEFORE
+    * acquiring a searcher: results are then never older than the generation they are recorded against.
+    *
+    * @param itemTypes the index types.
+    * @return a number that increases whenever any of the indexes change (0 for unknown types.)
+    */
+  def generation(itemTypes: Array[String]): Long = {
+    itemTypes.map(t => Option(generations.get(t)).map(_.get).getOrElse(0L)).sum
+  }
+
+  /**
+    * Blocks until searchers for itemType reflect every change made so far. Only for writers that need their own
+    * changes visible at once (bulk imports, index rebuilds, the startup sync); read paths must never call this, they
+    * acquire() whatever the background refresh last opened. Concurrent blocking refreshes serialize on the manager.
+    *
+    * @param itemType the index type to refresh.
+    */
+  def refresh(itemType: String): Unit = {
+    Option(managers.get(itemType)).foreach(_.maybeRefreshBlocking())
+  }
+
+  /**
+    * Refreshes every manager with changes. Errors are logged rather than thrown so the schedule keeps running.
+    */
+  def refreshAll(): Unit = {
+    managers.asScala.foreach { case (itemType, manager) =>
+      try {
+        manager.maybeRefresh()
+        Option(lifetimes.get(itemType)).foreach(_.prune(new PruneByAge(SearchConstants.CURSOR_TTL_SECONDS)))
+      } catch {
+        // i.e. AlreadyClosedException while writerReplaced swaps the manager; anything escaping the task would
+        // cancel the schedule and leave every searcher stale.
+        case NonFatal(e) =>
+          LOGGER.error(s"[SEARCH] :::::: Error refreshing '$itemType' searcher.")
+          LOGGER.error(e)
+      }
+    }
+  }
+
+  /**
+    * Rebinds the searchers of an index to a writer that replaced a closed one (see IndexWriterRegistry.) A manager
+    * stays tied to the writer it was opened with, so without this searches would never see writes made after the
+    * replacement. Searchers acquired from the old manager stay usable until they are released.
+    *
+    * @param itemType the index type.
+    * @param writer   the new writer.
+    */
+  private[search] def writerReplaced(itemType: String, writer: IndexWriter): Unit = synchronized {
+    Option(managers.get(itemType)).foreach { old =>
+      managers.put(itemType, track(itemType, new SearcherManager(writer, null)))
+      generations.get(itemType).incrementAndGet() // Results cached against the old searchers are stale.
+      try {
+        old.close()
+      } catch {
+        case e: IOException =>
+          LOGGER.error(s"[SEARCH] :::::: Error closing the replaced '$itemType' searcher.")
+          LOGGER.error(e)
+      }
+    }
+  }
+
+  /**
+    * Stops the refresh and closes every manager. Must be called before the writers are closed.
+    */
+  def close(): Unit = synchronized {
+    LOGGER.debug("[SEARCH] :::::: Closing searcher managers...")
+    refresher.foreach(_.shutdown())
+    refresher = None
+    managers.asScala.foreach { case (itemType, manager) =>
+      try {
+        manager.close()
+      } catch {
+        case e: IOException =>
+          LOGGER.error(s"[SEARCH] :::::: Error closing '$itemType' searcher.")
+          LOGGER.error(e)
+      }
+    }
+    managers.clear()
+    lifetimes.asScala.foreach { case (itemType, lifetime) =>
+      try {
+        lifetime.close()
+      } catch {
+        case e: IOException =>
+          LOGGER.error(s"[SEARCH] :::::: Error closing '$itemType' pinned searchers.")
+          LOGGER.error(e)
+      }
+    }
+    lifetimes.clear()
+  }
+
+  private def track(itemType: String, manager: SearcherManager): SearcherManager = {
+    val generation = generations.computeIfAbsent(itemType, (_: String) => new AtomicLong())
+    manager.addListener(new ReferenceManager.RefreshListener {
+      override def beforeRefresh(): Unit = {}
+
+      override def afterRefresh(didRefresh: Boolean): Unit = if (didRefresh) generation.incrementAndGet()
+    })
+    manager
+  }
+
+  private def getManager(itemType: String): SearcherManager = {
+    val manager = managers.get(itemType)
+    if (manager == null) throw new IOException(s"No index for item type '$itemType'.")
+    manager
+  }
+}
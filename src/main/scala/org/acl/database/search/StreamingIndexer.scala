@@ -0,0 +1,107 @@
+package org.acl.database.search
+
+import java.util.concurrent._
+import java.util.concurrent.atomic.AtomicBoolean
+
+import org.acl.database.services.search.SearchConstants
+import org.apache.log4j.Logger
+import org.apache.lucene.document.Document
+import org.apache.lucene.index.Term
+
+import scala.collection.JavaConverters._
+
+/**
+  * Writes large numbers of items to an index without holding them all in memory. Items are loaded a page at a time
+  * on the calling thread, converted to documents on a worker pool, and handed to a single writer thread through a
+  * bounded queue; when the writer falls behind, loading blocks. At most REINDEX_QUEUE_CAPACITY pages are in flight.
+  *
+  * @author Josh Harkema
+  */
+object StreamingIndexer {
+  private val LOGGER = Logger.getLogger(StreamingIndexer.getClass)
+  private val END: CompletableFuture[java.util.List[Document]] = CompletableFuture.completedFuture(null)
+  private val converters = Executors.newFixedThreadPool(
+    Math.max(2, Runtime.getRuntime.availableProcessors - 1), daemonThreads("lucene_convert"))
+  private val writers = Executors.newCachedThreadPool(daemonThreads("lucene_write"))
+
+  /**
+    * Adds or replaces the documents for every id. Documents are matched on their ID field. Changes are not
+    * committed.
+    *
+    * @param itemType   the index to write to.
+    * @param ids        the db ids of the items to index.
+    * @param loader     loads a single page of items by id.
+    * @param toDocument converts an item to its search document; called from several threads at once.
+    * @tparam T the item type.
+    */
+  def index[T](itemType: String, ids: java.util.List[java.lang.Long],
+               loader: java.util.function.Function[java.util.List[java.lang.Long], java.util.List[T]],
+               toDocument: java.util.function.Function[T, Document]): Unit = {
+    LOGGER.debug(s"[SEARCH] :::::: Streaming ${ids.size} items into the '$itemType' index...")
+    val queue = new ArrayBlockingQueue[CompletableFuture[java.util.List[Document]]](
+      SearchConstants.REINDEX_QUEUE_CAPACITY)
+    val aborted = new AtomicBoolean(false)
+    val writing = CompletableFuture.runAsync(() => write(itemType, queue, aborted), writers)
+
+    try {
+      var i = 0
+      while (i < ids.size && !aborted.get) {
+        val items = loader.apply(ids.subList(i, Math.min(i + SearchConstants.REINDEX_BATCH_SIZE, ids.size)))
+        queue.put(CompletableFuture.supplyAsync(() => convert(items, toDocument), converters))
+        i += SearchConstants.REINDEX_BATCH_SIZE
+      }
+    } finally {
+      queue.put(END)
+    }
+
+    try {
+      writing.join()
+    } catch {
+      case e: CompletionException => throw unwrap(e)
+    }
+  }
+
+  private def convert[T](items: java.util.List[T], toDocument: java.util.function.Function[T, Document]):
+  java.util.List[Document] = {
+    val documents = new java.util.ArrayList[Document](items.size)
+    items.asScala.foreach(item => documents.add(toDocument.apply(item)))
+    documents
+  }
+
+  /**
+    * Drains the queue until END. After the first failure the remaining pages are discarded (so the loader never
+    * blocks on a full queue) and the failure is rethrown.
+    */
+  private def write(itemType: String, queue: BlockingQueue[CompletableFuture[java.util.List[Document]]],
+                    aborted: AtomicBoolean): Unit = {
+    var error: Throwable = null
+    var next = queue.take()
+    while (!(next eq END)) {
+      if (error == null) {
+        try {
+          val documents = next.join()
+          IndexWriterRegistry.withWriter(itemType)(writer => documents.asScala.foreach(d =>
+            writer.updateDocument(new Term(SearchConstants.ID, d.get(SearchConstants.ID)), d)))
+          IndexProgress.advance(itemType, documents.size)
+        } catch {
+          case e: Throwable =>
+            error = unwrap(e)
+            aborted.set(true)
+        }
+      }
+      next = queue.take()
+    }
+    if (error != null) throw error
+  }
+
+  private def unwrap(e: Throwable): Throwable = e match {
+    case c: CompletionException if c.getCause != null => unwrap(c.getCause)
+    case _ => e
+  }
+
+  private def daemonThreads(name: String): ThreadFactory = (r: Runnable) => {
+    val thread = new Thread(r, name)
+    thread.setDaemon(true)
+    thread
+  }
+}
@@ -0,0 +1,24 @@
+package org.acl.database.tools
+
+import org.springframework.transaction.support.{TransactionSynchronizationAdapter, TransactionSynchronizationManager}
+
+/**
+  * Defers work that must only happen once the database agrees, such as search index writes: done inside the
+  * transaction they would stay visible (and committed to the index) if the transaction rolled back.
+  *
+  * @author Josh Harkema
+  */
+object AfterCommit {
+
+  /**
+    * @param action run after the current transaction commits; never if it rolls back. Run at once if there is no
+    *               transaction.
+    */
+  def run(action: Runnable): Unit = {
+    if (TransactionSynchronizationManager.isSynchronizationActive) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter {
+        override def afterCommit(): Unit = action.run()
+      })
+    } else action.run()
+  }
+}
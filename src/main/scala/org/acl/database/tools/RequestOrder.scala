@@ -0,0 +1,38 @@
+package org.acl.database.tools
+
+import org.acl.database.persistence.models.base.Item
+import org.acl.database.services.exceptions.ItemNotFoundException
+
+import scala.collection.JavaConverters._
+
+/**
+  * Loads items for a list of ids with a single WHERE id IN (...) query and puts them back in the requested order.
+  *
+  * @author Josh Harkema
+  */
+object RequestOrder {
+
+  /**
+    * @param ids    the requested ids; may contain repeats, each repeat gets the same item.
+    * @param loader loads the items for a set of distinct ids, in any order.
+    * @tparam T the item type.
+    * @return one item per requested id, in the same order as the ids.
+    * @throws ItemNotFoundException if any of the ids does not exist.
+    */
+  def load[T <: Item](ids: Array[java.lang.Long],
+                      loader: java.util.function.Function[java.util.Collection[java.lang.Long], java.util.List[T]]):
+  java.util.List[T] = {
+    val out = new java.util.ArrayList[T](ids.length)
+    if (ids.isEmpty) return out
+
+    val byId = new java.util.HashMap[java.lang.Long, T]()
+    loader.apply(new java.util.LinkedHashSet[java.lang.Long](ids.toSeq.asJava)).asScala
+      .foreach(item => byId.put(item.getId, item))
+    ids.foreach(id => {
+      val item = byId.get(id)
+      if (item == null) throw new ItemNotFoundException()
+      out.add(item)
+    })
+    out
+  }
+}
@@ -0,0 +1,138 @@
+package org.acl.database.benchmarks;
+
+import org.acl.database.config.LuceneConfig;
+import org.acl.database.services.search.SearchConstants;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.queryparser.classic.MultiFieldQueryParser;
+import org.apache.lucene.queryparser.classic.ParseException;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.highlight.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares building a new analyzer chain for every use (the old LuceneConfig.getAnalyzer() behaviour) with the
+ * shared analyzer, per search (query parsing and highlighting a hit) and per indexed document. Run main() and compare
+ * the gc.alloc.rate.norm (bytes allocated per operation) columns.
+ *
+ * @author Josh Harkema
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AnalyzerBenchmark {
+    private static final String[] SEARCH_FIELDS = new String[]{SearchConstants.TEXT,
+            SearchConstants.AUTHOR_FIRST_NAME, SearchConstants.AUTHOR_LAST_NAME, SearchConstants.TITLE};
+    private static final String QUERY = "love death";
+    private static final String TITLE = "Sonnet 18: Shall I compare thee to a summer's day?";
+    private static final String TEXT = String.join(SearchConstants.LINE_DELIMITER_POEM,
+            "Shall I compare thee to a summer's day?",
+            "Thou art more lovely and more temperate:",
+            "Rough winds do shake the darling buds of May,",
+            "And summer's lease hath all too short a date;",
+            "Sometime too hot the eye of heaven shines,",
+            "And often is his gold complexion dimm'd;",
+            "And every fair from fair sometime declines,",
+            "By chance or nature's changing course untrimm'd;",
+            "But thy eternal summer shall not fade,",
+            "Nor lose possession of that fair thou ow'st;",
+            "Nor shall death brag thou wander'st in his shade,",
+            "When in eternal lines to time thou grow'st:",
+            "So long as men can breathe or eyes can see,",
+            "So long lives this, and this gives life to thee.");
+
+    private Query query;
+
+    @Setup
+    public void setup() throws ParseException {
+        query = new MultiFieldQueryParser(SEARCH_FIELDS, LuceneConfig.getAnalyzer()).parse(QUERY);
+    }
+
+    @Benchmark
+    public Query parseQueryNewAnalyzer() throws ParseException {
+        try (Analyzer analyzer = LuceneConfig.createAnalyzer()) {
+            return new MultiFieldQueryParser(SEARCH_FIELDS, analyzer).parse(QUERY);
+        }
+    }
+
+    @Benchmark
+    public Query parseQuerySharedAnalyzer() throws ParseException {
+        return new MultiFieldQueryParser(SEARCH_FIELDS, LuceneConfig.getAnalyzer()).parse(QUERY);
+    }
+
+    @Benchmark
+    public String highlightNewAnalyzer() throws IOException, InvalidTokenOffsetsException {
+        try (Analyzer analyzer = LuceneConfig.createAnalyzer()) {
+            return highlight(analyzer);
+        }
+    }
+
+    @Benchmark
+    public String highlightSharedAnalyzer() throws IOException, InvalidTokenOffsetsException {
+        return highlight(LuceneConfig.getAnalyzer());
+    }
+
+    @Benchmark
+    public int indexDocumentNewAnalyzer() throws IOException {
+        try (Analyzer analyzer = LuceneConfig.createAnalyzer()) {
+            return invert(analyzer);
+        }
+    }
+
+    @Benchmark
+    public int indexDocumentSharedAnalyzer() throws IOException {
+        return invert(LuceneConfig.getAnalyzer());
+    }
+
+    private String highlight(final Analyzer analyzer) throws IOException, InvalidTokenOffsetsException {
+        QueryScorer scorer = new QueryScorer(query);
+        Highlighter highlighter = new Highlighter(
+                new SimpleHTMLFormatter("<span class='highlight'>", "</span>"), scorer);
+        highlighter.setTextFragmenter(new SimpleSpanFragmenter(scorer, SearchConstants.FRAGMENT_SIZE));
+        return String.join(SearchConstants.FRAGMENT_DELIMITER,
+                highlighter.getBestFragments(analyzer, SearchConstants.TEXT, TEXT, SearchConstants.MAX_FRAGMENTS));
+    }
+
+    /**
+     * Runs every analyzed field of a poem document through the analyzer, as IndexWriter does when inverting it.
+     */
+    private static int invert(final Analyzer analyzer) throws IOException {
+        return countTokens(analyzer, SearchConstants.TITLE, TITLE)
+                + countTokens(analyzer, SearchConstants.AUTHOR_FIRST_NAME, "William")
+                + countTokens(analyzer, SearchConstants.AUTHOR_LAST_NAME, "Shakespeare")
+                + countTokens(analyzer, SearchConstants.POEM_FORM, "SONNET")
+                + countTokens(analyzer, SearchConstants.TEXT, TEXT);
+    }
+
+    private static int countTokens(final Analyzer analyzer, final String field, final String text)
+            throws IOException {
+        int count = 0;
+        try (TokenStream stream = analyzer.tokenStream(field, text)) {
+            stream.reset();
+            while (stream.incrementToken()) {
+                count++;
+            }
+            stream.end();
+        }
+        return count;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(AnalyzerBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,135 @@
+package org.acl.database.benchmarks;
+
+import org.acl.database.cache.CompactRedisSerializer;
+import org.acl.database.persistence.dtos.base.PoemOutDto;
+import org.acl.database.persistence.models.base.Author;
+import org.acl.database.persistence.models.base.Poem;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the JDK serialization Redis caches used to use with CompactRedisSerializer (with and without deflate) for
+ * a single poem (POEM_BY_ID) and 1000 poem summaries (POEM_ALL_SECURE). Run main(); the payload size of each
+ * combination is printed before the benchmarks start.
+ *
+ * @author Josh Harkema
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CacheSerializerBenchmark {
+    @Param({"jdk", "compact", "compact-deflate"})
+    private String serializer;
+
+    @Param({"poem", "poem-list"})
+    private String payload;
+
+    private RedisSerializer<Object> redisSerializer;
+    private Object value;
+    private byte[] bytes;
+
+    @Setup
+    public void setup() {
+        redisSerializer = redisSerializer(serializer);
+        value = value(payload);
+        bytes = redisSerializer.serialize(value);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return redisSerializer.serialize(value);
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return redisSerializer.deserialize(bytes);
+    }
+
+    private static RedisSerializer<Object> redisSerializer(final String name) {
+        ClassLoader classLoader = CacheSerializerBenchmark.class.getClassLoader();
+        switch (name) {
+            case "jdk":
+                return new JdkSerializationRedisSerializer(classLoader);
+            case "compact":
+                return new CompactRedisSerializer(classLoader, -1);
+            default:
+                return new CompactRedisSerializer(classLoader, 1024);
+        }
+    }
+
+    private static Object value(final String payload) {
+        return "poem".equals(payload) ? poem(1L) : poemList();
+    }
+
+    private static Author author() {
+        Author author = new Author();
+        author.setId(1L);
+        author.setFirstName("William");
+        author.setLastName("Shakespeare");
+        return author;
+    }
+
+    private static Poem poem(final Long id) {
+        Poem poem = new Poem();
+        poem.setId(id);
+        poem.setAuthor(author());
+        poem.setTitle("Sonnet 18: Shall I compare thee to a summer's day?");
+        poem.setSourceTitle("Shakespeare's Sonnets");
+        poem.setCategory("POEM");
+        poem.setPeriod("1600-1650");
+        poem.setForm("SONNET");
+        poem.setPublicDomain(true);
+        poem.setText(new ArrayList<>(Arrays.asList(
+                "Shall I compare thee to a summer's day?",
+                "Thou art more lovely and more temperate:",
+                "Rough winds do shake the darling buds of May,",
+                "And summer's lease hath all too short a date;",
+                "Sometime too hot the eye of heaven shines,",
+                "And often is his gold complexion dimm'd;",
+                "And every fair from fair sometime declines,",
+                "By chance or nature's changing course untrimm'd;",
+                "But thy eternal summer shall not fade,",
+                "Nor lose possession of that fair thou ow'st;",
+                "Nor shall death brag thou wander'st in his shade,",
+                "When in eternal lines to time thou grow'st:",
+                "So long as men can breathe or eyes can see,",
+                "So long lives this, and this gives life to thee.")));
+        return poem;
+    }
+
+    private static List<PoemOutDto> poemList() {
+        Author author = author();
+        List<PoemOutDto> poems = new ArrayList<>();
+        for (long i = 0; i < 1000; i++) {
+            poems.add(new PoemOutDto(i, author, "Sonnet " + i, "Shakespeare's Sonnets", "1600-1650",
+                    "SONNET", "POEM"));
+        }
+        return poems;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (String serializer : new String[]{"jdk", "compact", "compact-deflate"}) {
+            for (String payload : new String[]{"poem", "poem-list"}) {
+                System.out.println(serializer + " / " + payload + ": " +
+                        redisSerializer(serializer).serialize(value(payload)).length + " bytes");
+            }
+        }
+        Options options = new OptionsBuilder()
+                .include(CacheSerializerBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
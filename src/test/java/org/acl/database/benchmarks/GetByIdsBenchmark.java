@@ -0,0 +1,134 @@
+package org.acl.database.benchmarks;
+
+import org.acl.database.SonnetApplication;
+import org.acl.database.persistence.models.base.Author;
+import org.acl.database.persistence.models.base.Poem;
+import org.acl.database.persistence.repositories.AuthorRepository;
+import org.acl.database.persistence.repositories.poem.PoemRepository;
+import org.acl.database.services.base.PoemService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares loading poems one findById at a time (the old PoemService.getByIds() behaviour) with the single
+ * WHERE id IN (...) query, for 10, 100 and 1000 ids, against the in-memory H2 database from the test profile. Run
+ * main() and compare the times, and the statements column (prepared statements, i.e. database round trips) divided by
+ * the calls column.
+ *
+ * @author Josh Harkema
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GetByIdsBenchmark {
+    @Param({"10", "100", "1000"})
+    private int size;
+
+    private ConfigurableApplicationContext context;
+    private PoemRepository poemRepository;
+    private PoemService poemService;
+    private TransactionTemplate readOnly;
+    private Statistics statistics;
+    private Long[] ids;
+
+    /**
+     * Totals per iteration, reported next to the timings.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class RoundTrips {
+        public long statements;
+        public long calls;
+
+        private void record(final long statements) {
+            this.statements += statements;
+            this.calls++;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = new SpringApplicationBuilder(SonnetApplication.class)
+                .profiles("test")
+                .properties("spring.jpa.show-sql=false",
+                        "spring.jpa.properties.hibernate.generate_statistics=true")
+                .run();
+        poemRepository = context.getBean(PoemRepository.class);
+        poemService = context.getBean(PoemService.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+        statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+
+        Author author = new Author();
+        author.setFirstName("William");
+        author.setLastName("Shakespeare");
+        author = context.getBean(AuthorRepository.class).save(author);
+
+        List<Poem> poems = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Poem poem = new Poem();
+            poem.setAuthor(author);
+            poem.setTitle("Sonnet " + i);
+            poem.setCategory("POEM");
+            poem.setForm("SONNET");
+            poem.setText(Arrays.asList("Shall I compare thee to a summer's day?",
+                    "Thou art more lovely and more temperate:"));
+            poems.add(poem);
+        }
+        ids = poemRepository.saveAll(poems).stream().map(Poem::getId).toArray(Long[]::new);
+        Collections.reverse(Arrays.asList(ids)); // Requested order differs from insertion order.
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Poem> findByIdLoop(final RoundTrips roundTrips) {
+        long before = statistics.getPrepareStatementCount();
+        List<Poem> poems = readOnly.execute(status -> {
+            List<Poem> out = new ArrayList<>(ids.length);
+            for (Long id : ids) {
+                out.add(poemRepository.findById(id).orElseThrow(IllegalStateException::new));
+            }
+            return out;
+        });
+        roundTrips.record(statistics.getPrepareStatementCount() - before);
+        return poems;
+    }
+
+    @Benchmark
+    public List<Poem> getByIds(final RoundTrips roundTrips) {
+        long before = statistics.getPrepareStatementCount();
+        List<Poem> poems = poemService.getByIds(ids);
+        roundTrips.record(statistics.getPrepareStatementCount() - before);
+        return poems;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(GetByIdsBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,79 @@
+package org.acl.database.cache;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for how TwoTierCacheManager records the items each cache entry contains in Redis.
+ *
+ * @author Josh Harkema
+ */
+public class TwoTierCacheManagerTest {
+    private RedisTemplate<Object, Object> redisTemplate;
+    private RedisOperations<Object, Object> operations;
+    private SetOperations<Object, Object> sets;
+
+    private TwoTierCacheManager manager(final Duration ttl) {
+        return new TwoTierCacheManager(new ConcurrentMapCacheManager(), redisTemplate,
+                new JdkSerializationRedisSerializer(), 10, Duration.ofMinutes(1), Duration.ZERO, ttl,
+                Collections.emptySet());
+    }
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        redisTemplate = mock(RedisTemplate.class);
+        operations = mock(RedisOperations.class);
+        sets = mock(SetOperations.class);
+        when(operations.opsForSet()).thenReturn(sets);
+        when(redisTemplate.opsForSet()).thenReturn(sets);
+        when(redisTemplate.executePipelined(any(SessionCallback.class))).thenAnswer(invocation -> {
+            ((SessionCallback<Object>) invocation.getArgument(0)).execute(operations);
+            return Collections.emptyList();
+        });
+    }
+
+    @Test
+    public void trackingRecordsTheEntryUnderEachItemAndRenewsTheSets() {
+        assertTrue(manager(Duration.ofHours(1)).track("POEM_ALL", "public",
+                new LinkedHashSet<>(Arrays.asList(1L, 2L))));
+        verify(sets).add("cache-deps:POEM_ALL:1", "public");
+        verify(sets).add("cache-deps:POEM_ALL:2", "public");
+        verify(sets).add("cache-deps:POEM_ALL", 1L, 2L);
+        verify(operations).expire("cache-deps:POEM_ALL:1", 3_600_000L, TimeUnit.MILLISECONDS);
+        verify(operations).expire("cache-deps:POEM_ALL:2", 3_600_000L, TimeUnit.MILLISECONDS);
+        verify(operations).expire("cache-deps:POEM_ALL", 3_600_000L, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    public void setsAreKeptWithoutATtl() {
+        assertTrue(manager(Duration.ZERO).track("POEM_ALL", "public", Collections.singleton(1L)));
+        verify(sets).add("cache-deps:POEM_ALL:1", "public");
+        verify(operations, never()).expire(any(), anyLong(), any());
+    }
+
+    @Test
+    public void untrackingAllDeletesEveryTrackedSet() {
+        when(sets.members("cache-deps:POEM_ALL")).thenReturn(new LinkedHashSet<>(Arrays.asList(1L, 2L)));
+        manager(Duration.ofHours(1)).untrackAll("POEM_ALL");
+        verify(redisTemplate).delete(Arrays.<Object>asList("cache-deps:POEM_ALL", "cache-deps:POEM_ALL:1",
+                "cache-deps:POEM_ALL:2"));
+    }
+}
@@ -0,0 +1,199 @@
+package org.acl.database.cache;
+
+import org.acl.database.persistence.dtos.base.PoemOutDto;
+import org.acl.database.persistence.models.base.Poem;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for TwoTierCache: evicting an item evicts exactly the entries that contain it, from both tiers, and L1
+ * hands out copies. The Redis side of the manager (dependency sets and eviction messages) is kept in memory.
+ *
+ * @author Josh Harkema
+ */
+public class TwoTierCacheTest {
+    private static final String POEM_ALL = "POEM_ALL";
+    private static final String POEM_BY_FORM = "POEM_BY_FORM";
+    private static final String BOOK_ALL = "BOOK_ALL";
+    private FakeManager manager;
+    private Cache all;
+    private Cache byForm;
+
+    /**
+     * Keeps the dependency sets in memory and publishes nothing.
+     */
+    private static final class FakeManager extends TwoTierCacheManager {
+        private final Map<String, Set<Object>> dependencies = new HashMap<>();
+        private final ConcurrentMapCacheManager remote;
+        private boolean failTracking;
+
+        FakeManager(final ConcurrentMapCacheManager remote) {
+            super(remote, null, new JdkSerializationRedisSerializer(), 100, Duration.ofMinutes(1), Duration.ZERO,
+                    Duration.ZERO, Collections.singleton(BOOK_ALL));
+            this.remote = remote;
+        }
+
+        @Override
+        boolean track(final String cacheName, final Object key, final Set<Long> ids) {
+            if (failTracking) {
+                return false;
+            }
+            ids.forEach(id -> dependencies.computeIfAbsent(cacheName + ":" + id, k -> new HashSet<>()).add(key));
+            return true;
+        }
+
+        @Override
+        List<Object> untrack(final String cacheName, final Long id) {
+            Set<Object> keys = dependencies.remove(cacheName + ":" + id);
+            return keys == null ? new ArrayList<>() : new ArrayList<>(keys);
+        }
+
+        @Override
+        void untrackAll(final String cacheName) {
+            dependencies.keySet().removeIf(key -> key.startsWith(cacheName + ":"));
+        }
+
+        @Override
+        void publish(final String cacheName, final Object key) {
+        }
+    }
+
+    private static PoemOutDto dto(final long id) {
+        return new PoemOutDto(id, null, "Poem " + id, null, null, "SONNET", "POEM");
+    }
+
+    private static List<PoemOutDto> dtos(final long... ids) {
+        List<PoemOutDto> out = new ArrayList<>();
+        for (long id : ids) {
+            out.add(dto(id));
+        }
+        return out;
+    }
+
+    private boolean cached(final Cache cache, final Object key) {
+        return cache.get(key) != null;
+    }
+
+    private boolean cachedRemotely(final String cacheName, final Object key) {
+        return manager.remote.getCache(cacheName).get(key) != null;
+    }
+
+    @Before
+    public void setUp() {
+        manager = new FakeManager(new ConcurrentMapCacheManager());
+        all = manager.getCache(POEM_ALL);
+        byForm = manager.getCache(POEM_BY_FORM);
+        all.put("public", dtos(1, 2));
+        all.put("secure", dtos(2, 3));
+        all.put("other", dtos(3));
+        byForm.put("SONNET", dtos(1, 2, 3));
+    }
+
+    @Test
+    public void evictingAnItemEvictsExactlyTheEntriesContainingIt() {
+        all.evict(ItemRef.of(2L));
+        assertFalse(cached(all, "public"));
+        assertFalse(cached(all, "secure"));
+        assertFalse(cachedRemotely(POEM_ALL, "public"));
+        assertFalse(cachedRemotely(POEM_ALL, "secure"));
+        assertTrue(cached(all, "other"));
+        assertTrue(cached(byForm, "SONNET"));
+    }
+
+    @Test
+    public void evictingAnItemForgetsItsEntries() {
+        all.evict(ItemRef.of(2L));
+        all.put("public", dtos(1));
+        all.evict(ItemRef.of(2L));
+        assertTrue(cached(all, "public"));
+    }
+
+    @Test
+    public void evictingAnUncachedItemEvictsNothing() {
+        all.evict(ItemRef.of(42L));
+        assertTrue(cached(all, "public"));
+        assertTrue(cached(all, "secure"));
+        assertTrue(cached(all, "other"));
+    }
+
+    @Test
+    public void singleItemsAreTracked() {
+        Poem poem = new Poem();
+        poem.setId(7L);
+        byForm.put(7L, poem);
+        byForm.evict(ItemRef.of(7L));
+        assertFalse(cached(byForm, 7L));
+        assertTrue(cached(byForm, "SONNET"));
+    }
+
+    @Test
+    public void valuesWithoutItemsAreNotTracked() {
+        all.put("count", 3);
+        assertTrue(cached(all, "count"));
+        assertFalse(manager.dependencies.values().stream().anyMatch(keys -> keys.contains("count")));
+    }
+
+    @Test
+    public void clearingACacheForgetsItsDependencies() {
+        all.clear();
+        assertFalse(cached(all, "public"));
+        assertTrue(manager.dependencies.keySet().stream().noneMatch(key -> key.startsWith(POEM_ALL + ":")));
+        assertTrue(manager.dependencies.containsKey(POEM_BY_FORM + ":2"));
+    }
+
+    @Test
+    public void untrackedCachesRecordNothingAndAreClearedByItem() {
+        Cache books = manager.getCache(BOOK_ALL);
+        books.put("public", dtos(1, 2));
+        books.put("secure", dtos(3));
+        assertTrue(manager.dependencies.keySet().stream().noneMatch(key -> key.startsWith(BOOK_ALL + ":")));
+        books.evict(ItemRef.of(42L));
+        assertFalse(cached(books, "public"));
+        assertFalse(cached(books, "secure"));
+        assertFalse(cachedRemotely(BOOK_ALL, "public"));
+        assertTrue(cached(all, "public"));
+    }
+
+    @Test
+    public void localPresenceIsNotAHit() {
+        TwoTierCache cache = (TwoTierCache) all;
+        assertTrue(cache.isCachedLocally("public"));
+        assertFalse(cache.isCachedLocally("missing"));
+        assertEquals(0L, cache.stats().get("l1Hits"));
+        all.evict("public");
+        assertFalse(cache.isCachedLocally("public"));
+    }
+
+    @Test
+    public void entriesThatCanNotBeTrackedAreNotKept() {
+        manager.failTracking = true;
+        all.put("untracked", dtos(4));
+        assertFalse(cached(all, "untracked"));
+        assertFalse(cachedRemotely(POEM_ALL, "untracked"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void localHitsAreCopies() {
+        List<PoemOutDto> first = (List<PoemOutDto>) all.get("public").get();
+        first.clear();
+        List<PoemOutDto> second = (List<PoemOutDto>) all.get("public").get();
+        assertNotSame(first, second);
+        assertEquals(Arrays.asList(1L, 2L), Arrays.asList(second.get(0).getId(), second.get(1).getId()));
+    }
+}
@@ -0,0 +1,84 @@
+package org.acl.database.persistence.models.base;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for PoemTextConverter: lines survive a round trip through the column whatever characters they contain.
+ *
+ * @author Josh Harkema
+ */
+public class PoemTextConverterTest {
+    private final PoemTextConverter converter = new PoemTextConverter();
+
+    private List<String> roundTrip(final List<String> lines) {
+        return converter.convertToEntityAttribute(converter.convertToDatabaseColumn(lines));
+    }
+
+    private void assertRoundTrips(final String... lines) {
+        List<String> in = Arrays.asList(lines);
+        assertEquals(in, roundTrip(in));
+    }
+
+    @Test
+    public void linesAreSeparatedByLineBreaks() {
+        assertEquals("Shall I compare thee\nto a summer's day?",
+                converter.convertToDatabaseColumn(Arrays.asList("Shall I compare thee", "to a summer's day?")));
+        assertRoundTrips("Shall I compare thee", "to a summer's day?");
+        assertRoundTrips("One line");
+    }
+
+    @Test
+    public void lineBreaksInsideALineAreEscaped() {
+        assertEquals("a\\nb\nc\\rd", converter.convertToDatabaseColumn(Arrays.asList("a\nb", "c\rd")));
+        assertRoundTrips("a\nb", "c\rd", "\r\n");
+    }
+
+    @Test
+    public void backslashesAreEscaped() {
+        assertEquals("a\\\\b", converter.convertToDatabaseColumn(Collections.singletonList("a\\b")));
+        assertRoundTrips("a\\b", "\\", "\\n is not a line break", "ends with \\");
+    }
+
+    @Test
+    public void emptyLinesAreKept() {
+        assertRoundTrips("first", "", "third");
+        assertRoundTrips("", "second");
+        assertRoundTrips("", "");
+    }
+
+    @Test
+    public void trailingEmptyLinesAreKept() {
+        assertRoundTrips("last", "");
+        assertRoundTrips("last", "", "");
+    }
+
+    @Test
+    public void nullIsKept() {
+        assertNull(converter.convertToDatabaseColumn(null));
+        assertNull(converter.convertToEntityAttribute(null));
+    }
+
+    @Test
+    public void emptyColumnIsAnEmptyList() {
+        assertEquals("", converter.convertToDatabaseColumn(new ArrayList<>()));
+        assertTrue(roundTrip(new ArrayList<>()).isEmpty());
+        // A single empty line can not be told apart from no lines.
+        assertEquals("", converter.convertToDatabaseColumn(Collections.singletonList("")));
+        assertTrue(roundTrip(Collections.singletonList("")).isEmpty());
+    }
+
+    @Test
+    public void unknownEscapesDecodeToTheEscapedCharacter() {
+        assertEquals(Collections.singletonList("at"), converter.convertToEntityAttribute("\\at"));
+        assertEquals(Collections.singletonList("end\\"), converter.convertToEntityAttribute("end\\"));
+    }
+}
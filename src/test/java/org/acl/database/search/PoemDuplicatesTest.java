@@ -0,0 +1,111 @@
+package org.acl.database.search;
+
+import org.junit.Test;
+
+import java.util.UUID;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for PoemDuplicates: the title similarity threshold, author scoping and keeping titles in sync with adds,
+ * modifications and deletes. PoemDuplicates is global, so every test uses its own author and poem ids.
+ *
+ * @author Josh Harkema
+ */
+public class PoemDuplicatesTest {
+    private final String author = "Author" + UUID.randomUUID().toString();
+    private final String id = UUID.randomUUID().toString();
+
+    @Test
+    public void similarTitlesAreDuplicates() {
+        PoemDuplicates.put(id, "Ode to a Nightingale", author);
+        assertTrue(PoemDuplicates.exists("Ode to a Nightingale", author));
+        assertTrue(PoemDuplicates.exists("Ode on a Nightingale", author));
+        assertTrue(PoemDuplicates.exists("ODE TO A NIGHTINGALE!", author));
+    }
+
+    @Test
+    public void possessivesAndPunctuationAreIgnored() {
+        PoemDuplicates.put(id, "The Poet's Farewell", author);
+        assertTrue(PoemDuplicates.exists("poet farewell", author));
+        assertTrue(PoemDuplicates.exists("The Poet’s  Farewell.", author));
+    }
+
+    @Test
+    public void differentNumbersAreNotDuplicates() {
+        PoemDuplicates.put(id, "Sonnet 18", author);
+        assertFalse(PoemDuplicates.exists("Sonnet 19", author));
+    }
+
+    @Test
+    public void similarityIsInclusiveOfTheThreshold() {
+        // 4 shared words of 5 is exactly 0.8; 3 of 4 is 0.75.
+        PoemDuplicates.put(id, "Winter Morning Bright Snow", author);
+        assertTrue(PoemDuplicates.exists("Winter Morning Bright Snow Falling", author));
+        assertFalse(PoemDuplicates.exists("Winter Morning Bright", author));
+    }
+
+    @Test
+    public void titlesWithoutWordsOnlyMatchTheSameTitle() {
+        PoemDuplicates.put(id, "The", author);
+        assertTrue(PoemDuplicates.exists("the!", author));
+        assertFalse(PoemDuplicates.exists("A", author));
+        assertFalse(PoemDuplicates.exists(null, author));
+        assertFalse(PoemDuplicates.exists("", author));
+        assertFalse(PoemDuplicates.exists("Nightingale", author));
+    }
+
+    @Test
+    public void untitledPoemsAreNeverDuplicates() {
+        PoemDuplicates.put(id, null, author);
+        assertFalse(PoemDuplicates.exists(null, author));
+        assertFalse(PoemDuplicates.exists("", author));
+        assertFalse(PoemDuplicates.exists("The", author));
+        assertFalse(PoemDuplicates.exists("Untitled", author));
+        assertFalse(PoemDuplicates.similarTitles("Untitled", ""));
+        assertFalse(PoemDuplicates.similarTitles(null, "Of the"));
+    }
+
+    @Test
+    public void duplicatesAreScopedToTheAuthor() {
+        PoemDuplicates.put(id, "Ode to a Nightingale", author);
+        assertTrue(PoemDuplicates.exists("Ode to a Nightingale", " " + author.toUpperCase() + " "));
+        assertFalse(PoemDuplicates.exists("Ode to a Nightingale", author + "-other"));
+    }
+
+    @Test
+    public void modifyingAPoemReplacesItsTitle() {
+        PoemDuplicates.put(id, "Ode to a Nightingale", author);
+        PoemDuplicates.put(id, "To Autumn", author);
+        assertFalse(PoemDuplicates.exists("Ode to a Nightingale", author));
+        assertTrue(PoemDuplicates.exists("To Autumn", author));
+    }
+
+    @Test
+    public void modifyingAPoemsAuthorMovesIt() {
+        String other = author + "-other";
+        PoemDuplicates.put(id, "To Autumn", author);
+        PoemDuplicates.put(id, "To Autumn", other);
+        assertFalse(PoemDuplicates.exists("To Autumn", author));
+        assertTrue(PoemDuplicates.exists("To Autumn", other));
+    }
+
+    @Test
+    public void deletingAPoemRemovesIt() {
+        String second = UUID.randomUUID().toString();
+        PoemDuplicates.put(id, "To Autumn", author);
+        PoemDuplicates.put(second, "Ode on Melancholy", author);
+        PoemDuplicates.remove(id);
+        assertFalse(PoemDuplicates.exists("To Autumn", author));
+        assertTrue(PoemDuplicates.exists("Ode on Melancholy", author));
+        PoemDuplicates.remove(second);
+        assertFalse(PoemDuplicates.exists("Ode on Melancholy", author));
+    }
+
+    @Test
+    public void removingAnUnknownPoemIsIgnored() {
+        PoemDuplicates.remove(id);
+        assertFalse(PoemDuplicates.exists("To Autumn", author));
+    }
+}
@@ -0,0 +1,90 @@
+package org.acl.database.search;
+
+import org.acl.database.config.LuceneConfig;
+import org.acl.database.services.search.SearchConstants;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchNoDocsQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for QueryTerms: search string normalization and case handling of keyword vs analyzed fields, both as
+ * built queries and against a small index written with the shared analyzer.
+ *
+ * @author Josh Harkema
+ */
+public class QueryTermsTest {
+    private static Directory directory;
+    private static DirectoryReader reader;
+
+    @BeforeClass
+    public static void setUp() throws IOException {
+        directory = new ByteBuffersDirectory();
+        try (IndexWriter writer = new IndexWriter(directory, new IndexWriterConfig(LuceneConfig.getAnalyzer()))) {
+            Document document = new Document();
+            document.add(new StringField(SearchConstants.PERIOD, "Romantic", Field.Store.YES));
+            document.add(new TextField(SearchConstants.TITLE, "SONNET of the Sea", Field.Store.YES));
+            document.add(new TextField(SearchConstants.AUTHOR_LAST_NAME, "Shakespeare", Field.Store.YES));
+            writer.addDocument(document);
+        }
+        reader = DirectoryReader.open(directory);
+    }
+
+    @AfterClass
+    public static void tearDown() throws IOException {
+        reader.close();
+        directory.close();
+    }
+
+    private static int hits(final Query query) throws IOException {
+        return new IndexSearcher(reader).count(query);
+    }
+
+    @Test
+    public void normalizeTrimsAndCollapsesWhitespaceButKeepsCase() {
+        assertEquals("Shall I compare", QueryTerms.normalize("  Shall I \t compare\n"));
+        assertEquals("Romantic", QueryTerms.normalize(" Romantic "));
+        assertEquals("", QueryTerms.normalize(null));
+    }
+
+    @Test
+    public void keywordFieldsMatchTheExactValue() throws IOException {
+        assertEquals(new TermQuery(new Term(SearchConstants.PERIOD, "Romantic")),
+                QueryTerms.fieldQuery(SearchConstants.PERIOD, "  Romantic "));
+        assertEquals(1, hits(QueryTerms.fieldQuery(SearchConstants.PERIOD, "Romantic")));
+        assertEquals(0, hits(QueryTerms.fieldQuery(SearchConstants.PERIOD, "romantic")));
+        assertEquals("Romantic", QueryTerms.term(SearchConstants.PERIOD, "Romantic").text());
+    }
+
+    @Test
+    public void analyzedFieldsAreCaseInsensitive() throws IOException {
+        assertEquals(new TermQuery(new Term(SearchConstants.AUTHOR_LAST_NAME, "shakespeare")),
+                QueryTerms.fieldQuery(SearchConstants.AUTHOR_LAST_NAME, "SHAKESPEARE"));
+        assertEquals(1, hits(QueryTerms.fieldQuery(SearchConstants.AUTHOR_LAST_NAME, "shakespeare")));
+        assertEquals(1, hits(QueryTerms.fieldQuery(SearchConstants.TITLE, "sonnet OF the SEA")));
+        assertEquals("sonnet", QueryTerms.term(SearchConstants.TITLE, "SONNET").text());
+    }
+
+    @Test
+    public void textWithOnlyStopWordsMatchesNothing() {
+        assertTrue(QueryTerms.fieldQuery(SearchConstants.TEXT, "the of and") instanceof MatchNoDocsQuery);
+    }
+}
@@ -0,0 +1,149 @@
+package org.acl.database.services.search;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import org.acl.database.helpers.JsonHelper;
+import org.acl.database.persistence.dtos.web.SearchParamDto;
+import org.acl.database.persistence.models.TypeConstants;
+import org.acl.database.persistence.models.base.Author;
+import org.acl.database.persistence.models.base.Poem;
+import org.acl.database.search.SearchRepository;
+import org.acl.database.search.SearcherRegistry;
+import org.acl.database.services.exceptions.InvalidCursorException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.*;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Integration tests for cursor paged searches: pages stay consistent across index writes and refreshes, and invalid
+ * cursors are rejected with a 400.
+ *
+ * @author Josh Harkema
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK, properties = {"spring.profiles.active=test"})
+@AutoConfigureMockMvc
+@TestPropertySource(locations = "classpath:application-test.properties")
+public class PagedSearchIntegrationTest {
+    private static final Gson gson = new Gson();
+    private static final long FIRST_ID = 9_000_000L + new Random().nextInt(1_000_000);
+    private static final int POEMS = 5;
+    private final String word = "paging" + UUID.randomUUID().toString().replaceAll("[^a-f]", "");
+    private final List<String> written = new ArrayList<>();
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private SearchQueryHandlerService searchQueryHandlerService;
+
+    private void index(final long id) {
+        Author author = new Author();
+        author.setId(1L);
+        author.setFirstName("test-first-name");
+        author.setLastName("test-last-name");
+        Poem poem = new Poem();
+        poem.setId(id);
+        poem.setAuthor(author);
+        poem.setTitle(word + " " + id);
+        poem.setForm("SONNET");
+        poem.setPublicDomain(true);
+        poem.setText(Collections.singletonList("A line about " + word + "."));
+        SearchRepository.addDocument(SearchRepository.poemDocument(poem), TypeConstants.POEM);
+        written.add(String.valueOf(id));
+    }
+
+    private List<SearchParamDto> params() {
+        SearchParamDto param = new SearchParamDto();
+        param.setFieldName(SearchConstants.TEXT);
+        param.setSearchString(word);
+        return Collections.singletonList(param);
+    }
+
+    private Map<String, Object> page(final String cursor, final int size) {
+        return gson.fromJson(searchQueryHandlerService.pagedSearch(params(), new String[]{TypeConstants.POEM},
+                null, cursor, size), new TypeToken<Map<String, Object>>() {
+        }.getType());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> ids(final Map<String, Object> page) {
+        List<String> out = new ArrayList<>();
+        for (Map<String, String> result : (List<Map<String, String>>) page.get("results")) {
+            out.add(result.get(SearchConstants.ID));
+        }
+        return out;
+    }
+
+    @Before
+    public void setUp() {
+        for (long i = 0; i < POEMS; i++) {
+            index(FIRST_ID + i);
+        }
+        SearcherRegistry.refresh(TypeConstants.POEM);
+    }
+
+    @After
+    public void tearDown() {
+        written.forEach(id -> SearchRepository.deleteDocument(id, TypeConstants.POEM));
+        SearcherRegistry.refresh(TypeConstants.POEM);
+    }
+
+    @Test
+    public void pagesReadTheFirstPagesIndexesAcrossRefreshes() {
+        List<String> expected = ids(page(null, POEMS));
+        assertEquals(POEMS, expected.size());
+
+        Map<String, Object> first = page(null, 2);
+        assertEquals(expected.subList(0, 2), ids(first));
+
+        // Delete a hit already returned and add new matches; without pinning the doc ids shift under the cursor.
+        SearchRepository.deleteDocument(expected.get(0), TypeConstants.POEM);
+        index(FIRST_ID + POEMS);
+        index(FIRST_ID + POEMS + 1);
+        SearcherRegistry.refresh(TypeConstants.POEM);
+
+        Map<String, Object> second = page((String) first.get("nextCursor"), 2);
+        assertEquals(expected.subList(2, 4), ids(second));
+        Map<String, Object> third = page((String) second.get("nextCursor"), 2);
+        assertEquals(expected.subList(4, 5), ids(third));
+        assertNull(third.get("nextCursor"));
+
+        // A new search sees the changes.
+        assertEquals(POEMS + 1, ids(page(null, POEMS + 2)).size());
+    }
+
+    @Test(expected = InvalidCursorException.class)
+    public void cursorIsRejectedForAnotherSort() {
+        String cursor = (String) page(null, 2).get("nextCursor");
+        searchQueryHandlerService.pagedSearch(params(), new String[]{TypeConstants.POEM}, "year", cursor, 2);
+    }
+
+    @Test(expected = InvalidCursorException.class)
+    public void cursorIsRejectedForOtherItemTypes() {
+        String cursor = (String) page(null, 2).get("nextCursor");
+        searchQueryHandlerService.pagedSearch(params(), new String[]{TypeConstants.SECTION}, null, cursor, 2);
+    }
+
+    @Test
+    public void malformedCursorIsABadRequest() throws Exception {
+        mvc.perform(put("/search/paged")
+                .param("cursor", "not a cursor!")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(JsonHelper.toJson(params())))
+                .andExpect(status().isBadRequest());
+    }
+}
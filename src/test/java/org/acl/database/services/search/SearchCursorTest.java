@@ -0,0 +1,104 @@
+package org.acl.database.services.search;
+
+import org.acl.database.services.exceptions.InvalidCursorException;
+import org.apache.lucene.search.FieldDoc;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.util.BytesRef;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for SearchCursor encoding, decoding and validation.
+ *
+ * @author Josh Harkema
+ */
+public class SearchCursorTest {
+    private static final String[] TYPES = new String[]{"POEM", "SECTION"};
+    private static final long[] VERSIONS = new long[]{12L, 7L};
+    private static final Sort YEAR_SORT = new Sort(new SortField(SearchConstants.YEAR, SortField.Type.INT),
+            SortField.FIELD_SCORE);
+
+    private static String raw(final String text) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void relevanceCursorRoundTrips() {
+        String token = new SearchCursor(TYPES, VERSIONS, SearchCursor.sortKey(null), new ScoreDoc(42, 1.5f), 20)
+                .encode();
+        SearchCursor cursor = SearchCursor.decode(token);
+        assertTrue(cursor.matches(TYPES, SearchCursor.sortKey(null)));
+        assertEquals(12L, cursor.getVersion(0));
+        assertEquals(7L, cursor.getVersion(1));
+        assertEquals(20, cursor.getSeen());
+        assertEquals(42, cursor.toScoreDoc().doc);
+        assertEquals(1.5f, cursor.toScoreDoc().score, 0f);
+    }
+
+    @Test
+    public void sortedCursorRoundTripsEverySortValue() {
+        byte[] author = "Shakespeare".getBytes(StandardCharsets.UTF_8);
+        FieldDoc last = new FieldDoc(3, Float.NaN, new Object[]{1609, 2.25f, new BytesRef(author), null, 9L});
+        String token = new SearchCursor(TYPES, VERSIONS, SearchCursor.sortKey(YEAR_SORT), last, 5).encode();
+        FieldDoc decoded = SearchCursor.decode(token).toFieldDoc();
+        assertEquals(3, decoded.doc);
+        assertEquals(1609, decoded.fields[0]);
+        assertEquals(2.25f, decoded.fields[1]);
+        assertEquals(new BytesRef(author), decoded.fields[2]);
+        assertNull(decoded.fields[3]);
+        assertEquals(9L, decoded.fields[4]);
+    }
+
+    @Test
+    public void cursorOnlyMatchesTheSameTypesAndSort() {
+        SearchCursor cursor = new SearchCursor(TYPES, VERSIONS, SearchCursor.sortKey(YEAR_SORT),
+                new FieldDoc(1, 1f, new Object[]{1600, 1f}), 1);
+        assertTrue(cursor.matches(new String[]{"POEM", "SECTION"}, SearchCursor.sortKey(YEAR_SORT)));
+        assertFalse(cursor.matches(new String[]{"POEM"}, SearchCursor.sortKey(YEAR_SORT)));
+        assertFalse(cursor.matches(new String[]{"SECTION", "POEM"}, SearchCursor.sortKey(YEAR_SORT)));
+        assertFalse(cursor.matches(TYPES, SearchCursor.sortKey(null)));
+        assertFalse(cursor.matches(TYPES, SearchCursor.sortKey(new Sort(
+                new SortField(SearchConstants.YEAR, SortField.Type.INT, true), SortField.FIELD_SCORE))));
+    }
+
+    @Test(expected = InvalidCursorException.class)
+    public void relevanceCursorHasNoFieldDoc() {
+        new SearchCursor(TYPES, VERSIONS, "", new ScoreDoc(1, 1f), 1).toFieldDoc();
+    }
+
+    @Test(expected = InvalidCursorException.class)
+    public void rejectsNonBase64() {
+        SearchCursor.decode("not a cursor!");
+    }
+
+    @Test(expected = InvalidCursorException.class)
+    public void rejectsMissingParts() {
+        SearchCursor.decode(raw("POEM:1:"));
+    }
+
+    @Test(expected = InvalidCursorException.class)
+    public void rejectsTamperedNumbers() {
+        SearchCursor.decode(raw("POEM:1::abc:0:1:"));
+    }
+
+    @Test(expected = InvalidCursorException.class)
+    public void rejectsMismatchedVersions() {
+        SearchCursor.decode(raw("POEM,SECTION:1::3:0:1:"));
+    }
+
+    @Test(expected = InvalidCursorException.class)
+    public void rejectsUnknownSortValues() {
+        SearchCursor.decode(raw("POEM:1:abc:3:0:1:[x12"));
+    }
+
+    @Test(expected = InvalidCursorException.class)
+    public void rejectsSortValuesWithoutMarker() {
+        SearchCursor.decode(raw("POEM:1:abc:3:0:1:i12"));
+    }
+}
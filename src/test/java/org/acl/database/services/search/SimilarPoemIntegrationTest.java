@@ -0,0 +1,74 @@
+package org.acl.database.services.search;
+
+import org.acl.database.persistence.models.TypeConstants;
+import org.acl.database.persistence.models.base.Author;
+import org.acl.database.persistence.models.base.Poem;
+import org.acl.database.search.SearchRepository;
+import org.acl.database.search.SearcherRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.util.Collections;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Integration tests for the poem index search similarPoemExists falls back to until PoemDuplicates is loaded.
+ *
+ * @author Josh Harkema
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK, properties = {"spring.profiles.active=test"})
+@TestPropertySource(locations = "classpath:application-test.properties")
+public class SimilarPoemIntegrationTest {
+    private static final String TITLE = "Ode to a Nightingale";
+    private final long id = 8_000_000L + new Random().nextInt(1_000_000);
+    private final String lastName = "Keats" + UUID.randomUUID().toString().replaceAll("[^a-f]", "");
+
+    @Before
+    public void setUp() {
+        Author author = new Author();
+        author.setId(1L);
+        author.setFirstName("John");
+        author.setLastName(lastName);
+        Poem poem = new Poem();
+        poem.setId(id);
+        poem.setAuthor(author);
+        poem.setTitle(TITLE);
+        poem.setForm("ODE");
+        poem.setPublicDomain(true);
+        poem.setText(Collections.singletonList("My heart aches, and a drowsy numbness pains"));
+        SearchRepository.addDocument(SearchRepository.poemDocument(poem), TypeConstants.POEM);
+        SearcherRegistry.refresh(TypeConstants.POEM);
+    }
+
+    @After
+    public void tearDown() {
+        SearchRepository.deleteDocument(String.valueOf(id), TypeConstants.POEM);
+        SearcherRegistry.refresh(TypeConstants.POEM);
+    }
+
+    @Test
+    public void findsTheTitleWhateverTheCase() {
+        assertTrue(SearchQueryHandlerService.similarPoemIndexed(TITLE, lastName));
+        assertTrue(SearchQueryHandlerService.similarPoemIndexed(TITLE.toUpperCase(), lastName.toUpperCase()));
+    }
+
+    @Test
+    public void ignoresOtherTitles() {
+        assertFalse(SearchQueryHandlerService.similarPoemIndexed("To Autumn", lastName));
+    }
+
+    @Test
+    public void ignoresOtherAuthors() {
+        assertFalse(SearchQueryHandlerService.similarPoemIndexed(TITLE, lastName + "other"));
+    }
+}
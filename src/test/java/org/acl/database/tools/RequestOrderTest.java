@@ -0,0 +1,73 @@
+package org.acl.database.tools;
+
+import org.acl.database.persistence.models.base.Poem;
+import org.acl.database.services.exceptions.ItemNotFoundException;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for RequestOrder: results come back in request order, repeats are loaded once and unknown ids throw.
+ *
+ * @author Josh Harkema
+ */
+public class RequestOrderTest {
+    private final List<Collection<Long>> loads = new ArrayList<>();
+
+    private static Poem poem(final long id) {
+        Poem poem = new Poem();
+        poem.setId(id);
+        return poem;
+    }
+
+    /**
+     * Stands in for a repository query: returns the poems that exist (ids 1 to 5), in reverse id order.
+     */
+    private List<Poem> load(final Collection<Long> ids) {
+        loads.add(new ArrayList<>(ids));
+        return ids.stream()
+                .filter(id -> id >= 1 && id <= 5)
+                .sorted(Collections.reverseOrder())
+                .map(RequestOrderTest::poem)
+                .collect(Collectors.toList());
+    }
+
+    private static List<Long> ids(final List<Poem> poems) {
+        return poems.stream().map(Poem::getId).collect(Collectors.toList());
+    }
+
+    @Test
+    public void keepsTheRequestedOrder() {
+        List<Poem> poems = RequestOrder.load(new Long[]{3L, 1L, 5L, 2L}, this::load);
+        assertEquals(Arrays.asList(3L, 1L, 5L, 2L), ids(poems));
+    }
+
+    @Test
+    public void repeatsAreLoadedOnceAndReturnedEachTime() {
+        List<Poem> poems = RequestOrder.load(new Long[]{2L, 4L, 2L, 2L}, this::load);
+        assertEquals(Arrays.asList(2L, 4L, 2L, 2L), ids(poems));
+        assertSame(poems.get(0), poems.get(2));
+        assertEquals(1, loads.size());
+        assertEquals(Arrays.asList(2L, 4L), loads.get(0));
+    }
+
+    @Test(expected = ItemNotFoundException.class)
+    public void missingIdsThrow() {
+        RequestOrder.load(new Long[]{1L, 42L}, this::load);
+    }
+
+    @Test
+    public void emptyRequestsDoNotQuery() {
+        assertTrue(RequestOrder.load(new Long[0], this::load).isEmpty());
+        assertTrue(loads.isEmpty());
+    }
+}